@@ -0,0 +1,94 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison of the size and height queries and of the mutations with and
+ * without {@link TreeNode#enableSizeAndHeightCache()}, showing what the
+ * cache saves on the queries and what it costs the mutations
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class SizeAndHeightCacheBenchmark {
+
+    /**
+     * The shared tree with the size and height cache optionally enabled
+     */
+    public static class CacheState extends TreeState {
+
+        @Param({"false", "true"})
+        public boolean cached;
+
+        @Setup(Level.Trial)
+        public void enableCache() {
+            if (cached) {
+                root.enableSizeAndHeightCache();
+            }
+        }
+    }
+
+    @Benchmark
+    public long size(CacheState state) {
+        return state.root.size();
+    }
+
+    @Benchmark
+    public int height(CacheState state) {
+        return state.root.height();
+    }
+
+    /**
+     * Drops the last node and adds it back, paying for the cache maintenance
+     * along the ancestor chain twice
+     */
+    @Benchmark
+    public boolean dropSubtree(CacheState state) {
+        TreeNode<Integer> parent = state.last.parent();
+        parent.dropSubtree(state.last);
+        return parent.add(state.last);
+    }
+
+    /**
+     * Drops the last node, adds it back and asks for the height, which is to
+     * be recalculated along the ancestor chain when the cache is enabled
+     */
+    @Benchmark
+    public int dropSubtreeAndHeight(CacheState state) {
+        TreeNode<Integer> parent = state.last.parent();
+        parent.dropSubtree(state.last);
+        parent.add(state.last);
+        return state.root.height();
+    }
+}
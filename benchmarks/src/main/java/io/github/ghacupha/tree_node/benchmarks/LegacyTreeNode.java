@@ -0,0 +1,141 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Copy of the shape the tree nodes had before the compact serialized form of
+ * the tree, written by the default java serialization, which follows the
+ * references between the tree nodes recursively. It is the baseline the
+ * compact serialized form is compared with by {@link SerializationBenchmark}
+ */
+abstract class LegacyTreeNode implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LegacyTreeNode parent;
+
+    private final Integer data;
+
+    LegacyTreeNode(Integer data) {
+        this.data = data;
+    }
+
+    /**
+     * Links the subtree specified as the last one of the current tree node
+     *
+     * @param subtree tree node to link
+     */
+    abstract void add(LegacyTreeNode subtree);
+
+    /**
+     * Copies the tree, which has the specified tree node as root, into the
+     * legacy tree nodes of the kind specified
+     *
+     * @param kind kind of the tree nodes, whose legacy shape is to be copied
+     * @param tree root of the tree to copy
+     * @return root of the copy
+     */
+    static LegacyTreeNode copyOf(TreeKind kind, TreeNode<Integer> tree) {
+        LegacyTreeNode root = create(kind, tree.data());
+        Deque<TreeNode<Integer>> nodes = new ArrayDeque<>();
+        Deque<LegacyTreeNode> copies = new ArrayDeque<>();
+        nodes.push(tree);
+        copies.push(root);
+        while (!nodes.isEmpty()) {
+            TreeNode<Integer> node = nodes.pop();
+            LegacyTreeNode copy = copies.pop();
+            // the subtrees collection is the only way to reach the subtrees in every release
+            for (TreeNode<Integer> subtree : node.subtrees()) {
+                LegacyTreeNode subtreeCopy = create(kind, subtree.data());
+                subtreeCopy.parent = copy;
+                copy.add(subtreeCopy);
+                nodes.push(subtree);
+                copies.push(subtreeCopy);
+            }
+        }
+        return root;
+    }
+
+    private static LegacyTreeNode create(TreeKind kind, Integer data) {
+        return kind == TreeKind.ARRAY ? new Array(data) : new LeftChild(data);
+    }
+
+    /**
+     * Shape of the array based tree node
+     */
+    private static final class Array extends LegacyTreeNode {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int DEFAULT_BRANCHING_FACTOR = 10;
+
+        private final int branchingFactor = DEFAULT_BRANCHING_FACTOR;
+
+        private Object[] subtrees = new Object[DEFAULT_BRANCHING_FACTOR];
+
+        private int subtreesSize;
+
+        private Array(Integer data) {
+            super(data);
+        }
+
+        @Override
+        void add(LegacyTreeNode subtree) {
+            if (subtreesSize == subtrees.length) {
+                subtrees = Arrays.copyOf(subtrees, subtreesSize + (subtreesSize >> 1));
+            }
+            subtrees[subtreesSize++] = subtree;
+        }
+    }
+
+    /**
+     * Shape of the leftmost child right sibling tree node
+     */
+    private static final class LeftChild extends LegacyTreeNode {
+
+        private static final long serialVersionUID = 1L;
+
+        private LeftChild leftMostNode;
+
+        private LeftChild rightSiblingNode;
+
+        private LeftChild lastSubtreeNode;
+
+        private LeftChild(Integer data) {
+            super(data);
+        }
+
+        @Override
+        void add(LegacyTreeNode subtree) {
+            LeftChild node = (LeftChild) subtree;
+            if (leftMostNode == null) {
+                leftMostNode = node;
+            } else {
+                lastSubtreeNode.rightSiblingNode = node;
+            }
+            lastSubtreeNode = node;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations, which change the structure of the tree.
+ * <p>
+ * Each operation leaves the tree the way it found it, dropped subtrees being
+ * added back to their parent, so that every invocation measures the same tree
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class MutationBenchmark {
+
+    /**
+     * Builds the whole tree node by node with {@link TreeNode#add(TreeNode)}
+     */
+    @Benchmark
+    public List<TreeNode<Integer>> add(TreeState state) {
+        return state.shape.build(state.kind, state.size);
+    }
+
+    @Benchmark
+    public boolean dropSubtree(TreeState state) {
+        TreeNode<Integer> parent = state.last.parent();
+        parent.dropSubtree(state.last);
+        return parent.add(state.last);
+    }
+
+    @Benchmark
+    public boolean remove(TreeState state) {
+        TreeNode<Integer> parent = state.last.parent();
+        state.root.remove(state.last);
+        return parent.add(state.last);
+    }
+}
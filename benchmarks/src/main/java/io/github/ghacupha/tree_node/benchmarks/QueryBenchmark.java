@@ -0,0 +1,82 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the read only queries on a prebuilt tree. The queries target
+ * the last node created, which is the hardest one to reach for most shapes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class QueryBenchmark {
+
+    @Benchmark
+    public TreeNode<Integer> find(TreeState state) {
+        return state.root.find(state.last.data());
+    }
+
+    @Benchmark
+    public Collection<? extends TreeNode<Integer>> findAll(TreeState state) {
+        return state.root.findAll(state.last.data());
+    }
+
+    @Benchmark
+    public boolean contains(TreeState state) {
+        return state.root.contains(state.last);
+    }
+
+    @Benchmark
+    public long size(TreeState state) {
+        return state.root.size();
+    }
+
+    @Benchmark
+    public int height(TreeState state) {
+        return state.root.height();
+    }
+
+    @Benchmark
+    public int level(TreeState state) {
+        return state.last.level();
+    }
+
+    @Benchmark
+    public Collection<? extends TreeNode<Integer>> path(TreeState state) {
+        return state.root.path(state.last);
+    }
+
+    @Benchmark
+    public TreeNode<Integer> commonAncestor(TreeState state) {
+        return state.last.commonAncestor(state.middle);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of writing a tree with the java serialization and reading it
+ * back, compared with the legacy shape of the tree nodes written by the
+ * default java serialization, see {@link LegacyTreeNode}. The sizes of both
+ * serialized forms are reported as secondary results of the reading
+ * benchmarks, as the bytes per tree node are as telling as the timings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class SerializationBenchmark {
+
+    /**
+     * The legacy copy of the shared tree and the serialized forms of both
+     */
+    @State(Scope.Benchmark)
+    public static class SerializedState {
+
+        public LegacyTreeNode legacyRoot;
+
+        public byte[] serialized;
+
+        public byte[] legacySerialized;
+
+        @Setup(Level.Trial)
+        public void serialize(TreeState state) throws IOException {
+            legacyRoot = LegacyTreeNode.copyOf(state.kind, state.root);
+            serialized = write(state.root);
+            legacySerialized = write(legacyRoot);
+        }
+    }
+
+    /**
+     * The sizes of the serialized forms of the shared tree, reported by JMH
+     * next to the timings of the benchmarks using them
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SerializedSize {
+
+        public long serializedBytes;
+
+        public double bytesPerNode;
+
+        public long legacySerializedBytes;
+
+        public double legacyBytesPerNode;
+
+        @Setup(Level.Iteration)
+        public void measure(TreeState state, SerializedState serializedState) {
+            // the counters are not reset by JMH, so they are set anew on each iteration
+            serializedBytes = serializedState.serialized.length;
+            bytesPerNode = (double) serializedState.serialized.length / state.size;
+            legacySerializedBytes = serializedState.legacySerialized.length;
+            legacyBytesPerNode = (double) serializedState.legacySerialized.length / state.size;
+        }
+    }
+
+    private static byte[] write(Object tree) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tree);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object read(byte[] serialized) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] write(TreeState state) throws IOException {
+        return write(state.root);
+    }
+
+    @Benchmark
+    public Object read(SerializedState state, SerializedSize size) throws IOException, ClassNotFoundException {
+        return read(state.serialized);
+    }
+
+    @Benchmark
+    public byte[] writeLegacy(SerializedState state) throws IOException {
+        return write(state.legacyRoot);
+    }
+
+    @Benchmark
+    public Object readLegacy(SerializedState state, SerializedSize size) throws IOException, ClassNotFoundException {
+        return read(state.legacySerialized);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations, which visit every node of a prebuilt tree
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class TraversalBenchmark {
+
+    @Benchmark
+    public Collection<TreeNode<Integer>> preOrdered(TreeState state) {
+        return state.root.preOrdered();
+    }
+
+    @Benchmark
+    public Collection<TreeNode<Integer>> postOrdered(TreeState state) {
+        return state.root.postOrdered();
+    }
+
+    @Benchmark
+    public void iterator(TreeState state, Blackhole blackhole) {
+        for (TreeNode<Integer> node : state.root) {
+            blackhole.consume(node);
+        }
+    }
+
+    @Benchmark
+    public String toString(TreeState state) {
+        return state.root.toString();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.ArrayTreeNode;
+import io.github.ghacupha.tree_node.LeftChildTreeNode;
+import io.github.ghacupha.tree_node.TreeNode;
+
+/**
+ * The tree node implementations being compared by the benchmarks
+ */
+public enum TreeKind {
+
+    /**
+     * Nodes based on the resizable array representation
+     */
+    ARRAY {
+        @Override
+        public <T> TreeNode<T> create(T data) {
+            return new ArrayTreeNode<>(data);
+        }
+    },
+
+    /**
+     * Nodes based on the leftmost-child-right-sibling representation
+     */
+    LEFT_CHILD {
+        @Override
+        public <T> TreeNode<T> create(T data) {
+            return new LeftChildTreeNode<>(data);
+        }
+    };
+
+    /**
+     * Creates a detached tree node of this kind
+     *
+     * @param data data to store in the tree node
+     * @param <T>  type of the data stored in the tree node
+     * @return a new root tree node carrying the data specified
+     */
+    public abstract <T> TreeNode<T> create(T data);
+}
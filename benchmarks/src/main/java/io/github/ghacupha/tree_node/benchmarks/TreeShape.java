@@ -0,0 +1,111 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The shapes of the trees used by the benchmarks. Every shape is built with
+ * {@link TreeNode#add(TreeNode)} and carries the creation ordinal of each node
+ * as its payload
+ */
+public enum TreeShape {
+
+    /**
+     * A root with all of the remaining nodes as its direct subtrees
+     */
+    WIDE {
+        @Override
+        int parentOf(int ordinal, Random random) {
+            return 0;
+        }
+    },
+
+    /**
+     * A single chain of nodes, each node being the only subtree of the previous one
+     */
+    DEEP {
+        @Override
+        int parentOf(int ordinal, Random random) {
+            return ordinal - 1;
+        }
+    },
+
+    /**
+     * A complete tree in which every node has {@link #BALANCED_BRANCHING_FACTOR} subtrees
+     */
+    BALANCED {
+        @Override
+        int parentOf(int ordinal, Random random) {
+            return (ordinal - 1) / BALANCED_BRANCHING_FACTOR;
+        }
+    },
+
+    /**
+     * A random recursive tree, in which each node is attached to a uniformly
+     * chosen node created before it
+     */
+    RANDOM {
+        @Override
+        int parentOf(int ordinal, Random random) {
+            return random.nextInt(ordinal);
+        }
+    };
+
+    /**
+     * Number of subtrees of each inner node of the balanced shape
+     */
+    static final int BALANCED_BRANCHING_FACTOR = 4;
+
+    /**
+     * Seed of the random shape, fixed so that every run measures the same tree
+     */
+    private static final long SEED = 0x5eedL;
+
+    /**
+     * Returns the ordinal of the parent of the node with the ordinal specified
+     *
+     * @param ordinal ordinal of a non root node
+     * @param random  source of randomness for the random shape
+     * @return ordinal of the parent node, which is always less than the ordinal specified
+     */
+    abstract int parentOf(int ordinal, Random random);
+
+    /**
+     * Builds a tree of this shape
+     *
+     * @param kind implementation of the tree nodes
+     * @param size number of nodes in the tree
+     * @return nodes of the tree in the order of creation, the first one being the root
+     */
+    public List<TreeNode<Integer>> build(TreeKind kind, int size) {
+        List<TreeNode<Integer>> nodes = new ArrayList<>(size);
+        Random random = new Random(SEED);
+        nodes.add(kind.create(0));
+        for (int ordinal = 1; ordinal < size; ordinal++) {
+            TreeNode<Integer> node = kind.create(ordinal);
+            nodes.get(parentOf(ordinal, random)).add(node);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
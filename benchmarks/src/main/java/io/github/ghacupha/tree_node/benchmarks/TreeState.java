@@ -0,0 +1,74 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node.benchmarks;
+
+import io.github.ghacupha.tree_node.TreeNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * A prebuilt tree shared by the read only benchmarks, parametrised over the
+ * implementation, the shape and the number of nodes
+ */
+@State(Scope.Benchmark)
+public class TreeState {
+
+    @Param({"ARRAY", "LEFT_CHILD"})
+    public TreeKind kind;
+
+    @Param({"WIDE", "DEEP", "BALANCED", "RANDOM"})
+    public TreeShape shape;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    /**
+     * Nodes of the tree in the order of creation
+     */
+    public List<TreeNode<Integer>> nodes;
+
+    /**
+     * The root of the tree
+     */
+    public TreeNode<Integer> root;
+
+    /**
+     * The last node created, which is the deepest node of the deep shape
+     * and the rightmost leaf of the other shapes
+     */
+    public TreeNode<Integer> last;
+
+    /**
+     * A node created half way through the build, used as a second argument
+     * of the binary queries
+     */
+    public TreeNode<Integer> middle;
+
+    @Setup(Level.Trial)
+    public void buildTree() {
+        nodes = shape.build(kind, size);
+        root = nodes.get(0);
+        last = nodes.get(size - 1);
+        middle = nodes.get(size / 2);
+    }
+}
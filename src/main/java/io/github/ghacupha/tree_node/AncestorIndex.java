@@ -0,0 +1,242 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.NodeNotFoundException;
+import io.github.ghacupha.tree_node.util.NullNodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+
+/**
+ * Index of a tree answering the lowest common ancestor and the distance
+ * queries in constant time
+ * <p>
+ * The index numbers the tree nodes in a pre ordered manner and keeps a sparse
+ * table of the shallowest nodes over the ranges of these numbers. The lowest
+ * common ancestor of two different nodes is then the parent of the shallowest
+ * node numbered after the first one, up to the second one inclusive
+ * <p>
+ * The index is built in O(n log n) time and space, and is rebuilt on the first
+ * query after the structure of the tree has changed
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class AncestorIndex<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(AncestorIndex.class);
+
+    /**
+     * Any of the tree nodes, used to find the root of the indexed tree
+     */
+    private final TreeNode<T> tree;
+
+    /**
+     * Root of the tree the index was built for
+     */
+    private TreeNode<T> root;
+
+    /**
+     * Modification count of the root, which the index was built at
+     */
+    private int rootModCount;
+
+    /**
+     * Tree nodes in a pre ordered manner
+     */
+    private TreeNode<T>[] nodes;
+
+    /**
+     * Depths of the tree nodes by their pre ordered numbers
+     */
+    private int[] depths;
+
+    /**
+     * The sparse table, which holds the pre ordered number of the shallowest
+     * node of each range [i, i + 2^k) at sparseTable[k][i]
+     */
+    private int[][] sparseTable;
+
+    /**
+     * Creates the index of the entire tree the specified tree node belongs to
+     *
+     * @param tree any of the nodes of the tree to index
+     * @throws NullNodeException if the specified tree node is {@code null}
+     */
+    public AncestorIndex(TreeNode<T> tree) {
+        if (tree == null) {
+            throw new NullNodeException("Unable to index the tree: ");
+        }
+        this.tree = tree;
+        build();
+    }
+
+    /**
+     * Returns the lowest common ancestor of the specified tree nodes, e.g.
+     * the deepest tree node, which is either an ancestor of or equal to each
+     * of them
+     *
+     * @param node  first tree node
+     * @param other second tree node
+     * @return lowest common ancestor of the specified tree nodes
+     * @throws NullNodeException     if any of the tree nodes is {@code null}
+     * @throws NodeNotFoundException if any of the tree nodes does not belong
+     *                               to the indexed tree
+     */
+    public TreeNode<T> lowestCommonAncestor(TreeNode<T> node, TreeNode<T> other) {
+        ensureUpToDate();
+        return nodes[lowestCommonAncestor(indexOf(node), indexOf(other))];
+    }
+
+    /**
+     * Returns the lowest common ancestor of all of the specified tree nodes
+     * <p>
+     * That is the lowest common ancestor of the first and the last of the
+     * tree nodes in a pre ordered manner, so the query takes the time
+     * proportional to the number of the tree nodes specified
+     *
+     * @param nodes tree nodes to find the lowest common ancestor of
+     * @return lowest common ancestor of the specified tree nodes
+     * @throws IllegalArgumentException if the collection of the tree nodes is empty
+     * @throws NullNodeException        if any of the tree nodes is {@code null}
+     * @throws NodeNotFoundException    if any of the tree nodes does not belong
+     *                                  to the indexed tree
+     */
+    public TreeNode<T> lowestCommonAncestor(Collection<? extends TreeNode<T>> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Unable to find the lowest common ancestor of no tree nodes");
+        }
+        ensureUpToDate();
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (TreeNode<T> node : nodes) {
+            int index = indexOf(node);
+            first = Math.min(first, index);
+            last = Math.max(last, index);
+        }
+        return this.nodes[lowestCommonAncestor(first, last)];
+    }
+
+    /**
+     * Returns the number of edges on the path between the specified tree nodes
+     *
+     * @param node  first tree node
+     * @param other second tree node
+     * @return number of edges on the path between the specified tree nodes
+     * @throws NullNodeException     if any of the tree nodes is {@code null}
+     * @throws NodeNotFoundException if any of the tree nodes does not belong
+     *                               to the indexed tree
+     */
+    public int distance(TreeNode<T> node, TreeNode<T> other) {
+        ensureUpToDate();
+        int index = indexOf(node);
+        int otherIndex = indexOf(other);
+        return depths[index] + depths[otherIndex] - 2 * depths[lowestCommonAncestor(index, otherIndex)];
+    }
+
+    /**
+     * Returns the pre ordered number of the lowest common ancestor of the
+     * tree nodes with the specified pre ordered numbers
+     */
+    private int lowestCommonAncestor(int index, int otherIndex) {
+        if (index == otherIndex) {
+            return index;
+        }
+        int from = Math.min(index, otherIndex) + 1;
+        int to = Math.max(index, otherIndex) + 1;
+        int level = 31 - Integer.numberOfLeadingZeros(to - from);
+        int left = sparseTable[level][from];
+        int right = sparseTable[level][to - (1 << level)];
+        int shallowest = depths[left] <= depths[right] ? left : right;
+        return nodes[shallowest].parent().preOrderIndex;
+    }
+
+    /**
+     * Returns the pre ordered number of the specified tree node
+     */
+    private int indexOf(TreeNode<T> node) {
+        String errorMessage = "Unable to find the tree node within the index: ";
+        if (node == null) {
+            throw new NullNodeException(errorMessage);
+        }
+        int index = node.preOrderIndex;
+        if (index < 0 || index >= nodes.length || nodes[index] != node) {
+            throw new NodeNotFoundException(errorMessage, root, node);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuilds the index if the structure of the tree has changed since it
+     * was built
+     */
+    private void ensureUpToDate() {
+        if (!root.isRoot() || root.treeModCount != rootModCount) {
+            build();
+        }
+    }
+
+    /**
+     * Numbers the tree nodes and fills the sparse table
+     */
+    private void build() {
+        root = tree.root();
+        rootModCount = root.treeModCount;
+        int size = (int) root.size();
+        log.debug("Building the ancestor index of {} tree nodes", size);
+        // the generic array can not be created, so the raw one is cast
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        TreeNode<T>[] nodes = (TreeNode<T>[]) new TreeNode[size];
+        this.nodes = nodes;
+        depths = new int[size];
+        TreeTraversal.preOrder(root, new TraversalAction<TreeNode<T>>() {
+            private int index;
+
+            @Override
+            public void perform(TreeNode<T> node) {
+                node.preOrderIndex = index;
+                nodes[index] = node;
+                depths[index] = node.isRoot() ? 0 : depths[node.parent().preOrderIndex] + 1;
+                index++;
+            }
+
+            @Override
+            public boolean isIncomplete() {
+                return true;
+            }
+        });
+        int levels = 32 - Integer.numberOfLeadingZeros(size);
+        sparseTable = new int[levels][];
+        sparseTable[0] = new int[size];
+        for (int i = 0; i < size; i++) {
+            sparseTable[0][i] = i;
+        }
+        for (int level = 1; level < levels; level++) {
+            int[] previous = sparseTable[level - 1];
+            int half = 1 << (level - 1);
+            int[] current = new int[size - (1 << level) + 1];
+            for (int i = 0; i < current.length; i++) {
+                int left = previous[i];
+                int right = previous[i + half];
+                current[i] = depths[left] <= depths[right] ? left : right;
+            }
+            sparseTable[level] = current;
+        }
+    }
+}
@@ -21,11 +21,14 @@ import io.github.ghacupha.tree_node.util.TreeNodeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -40,9 +43,11 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
     private static final Logger log = LoggerFactory.getLogger(ArrayTreeNode.class);
 
     /**
-     * Current UID of this object used for serialization
+     * Current UID of this object used for serialization; raised since the
+     * tree is written by its compact serialized form, so that the streams
+     * written before fail to be read instead of losing the subtrees
      */
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /**
      * Default initial branching factor, that is the number of subtrees
@@ -64,11 +69,17 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
     /**
      * Array, which holds the references to the current tree node subtrees
      */
-    private Object[] subtrees;
+    private transient Object[] subtrees;
     /**
      * Number of subtrees currently present in the current tree node
      */
-    private int subtreesSize;
+    private transient int subtreesSize;
+    /**
+     * Index of the current tree node within the subtrees array of its
+     * parent; {@code -1} if the current tree node is not held by an
+     * {@link ArrayTreeNode} parent
+     */
+    private transient int subtreeIndex = -1;
 
     /**
      * Constructs the {@link ArrayTreeNode} instance
@@ -100,6 +111,26 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
         log.debug("ArrayNode subtree created with data: {} and branching factor of {}", data, branchingFactor);
     }
 
+    /**
+     * Returns the initial branching factor of the current tree node
+     *
+     * @return initial branching factor of the current tree node
+     */
+    int branchingFactor() {
+        return branchingFactor;
+    }
+
+    @Override
+    TreeNode<T> createLike(T data) {
+        return getClass() == ArrayTreeNode.class ? new ArrayTreeNode<>(data, branchingFactor) : null;
+    }
+
+    @Override
+    boolean isLike(TreeNode<T> node) {
+        return getClass() == ArrayTreeNode.class && node.getClass() == ArrayTreeNode.class
+                && ((ArrayTreeNode<T>) node).branchingFactor == branchingFactor;
+    }
+
     /**
      * Returns the collection of the child nodes of the current node
      * with all of its proper descendants, if any
@@ -122,6 +153,118 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
         return subtrees;
     }
 
+    /**
+     * Returns an iterator over the child nodes of the current node, reading
+     * the subtrees array in place
+     *
+     * @return iterator over the child nodes of the current node
+     */
+    @Override
+    protected Iterator<TreeNode<T>> subtreesIterator() {
+        return new Iterator<TreeNode<T>>() {
+
+            /**
+             * Index of the next subtree within the subtrees array
+             */
+            private int index;
+
+            /**
+             * Index of the last returned subtree; {@code -1} if there is none
+             */
+            private int lastReturned = -1;
+
+            @Override
+            public boolean hasNext() {
+                return index < subtreesSize;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public TreeNode<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = index;
+                return (TreeNode<T>) subtrees[index++];
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void remove() {
+                if (lastReturned < 0) {
+                    throw new IllegalStateException();
+                }
+                dropSubtree((TreeNode<T>) subtrees[lastReturned]);
+                index = lastReturned;
+                lastReturned = -1;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of the child nodes of the current node
+     *
+     * @return number of the child nodes of the current node
+     */
+    @Override
+    public int childCount() {
+        return subtreesSize;
+    }
+
+    /**
+     * Returns the child node of the current node at the specified position
+     *
+     * @param index position of the child node among the child nodes of the
+     *              current node
+     * @return child node of the current node at the specified position
+     * @throws IndexOutOfBoundsException if the index is negative or not
+     *                                   less than {@link #childCount()}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public TreeNode<T> childAt(int index) {
+        if (index < 0 || index >= subtreesSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Child count: " + subtreesSize);
+        }
+        return (TreeNode<T>) subtrees[index];
+    }
+
+    /**
+     * Returns the first child node of the current node; {@code null} if the
+     * current node is a leaf
+     *
+     * @return first child node of the current node; {@code null} if the
+     *         current node is a leaf
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public TreeNode<T> firstChild() {
+        return subtreesSize == 0 ? null : (TreeNode<T>) subtrees[0];
+    }
+
+    /**
+     * Returns the child node of the parent, which follows the current node;
+     * {@code null} if the current node is root or the last child node of
+     * its parent
+     * <p>
+     * Overridden to look the position of the current node up by its
+     * subtree index
+     *
+     * @return child node of the parent, which follows the current node;
+     *         {@code null} if the current node is root or the last child
+     *         node of its parent
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public TreeNode<T> nextSibling() {
+        if (!(parent() instanceof ArrayTreeNode)) {
+            return super.nextSibling();
+        }
+        ArrayTreeNode<T> mParent = (ArrayTreeNode<T>) parent();
+        int nextSiblingIndex = mParent.indexOf(this) + 1;
+        return nextSiblingIndex > 0 && nextSiblingIndex < mParent.subtreesSize ? (TreeNode<T>) mParent.subtrees[nextSiblingIndex] : null;
+    }
+
     /**
      * Adds the subtree with all of its descendants to the current tree node
      * <p>
@@ -143,6 +286,7 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
         TreeNode.linkParent(subtree, this);
         ensureSubtreesCapacity(subtreesSize + 1);
         subtrees[subtreesSize++] = subtree;
+        updateSubtreeIndices(subtreesSize - 1);
         return true;
     }
 
@@ -194,6 +338,7 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
      * @return {@code true} if the current tree node was changed as a result
      *         of the call; {@code false} otherwise
      */
+    @SuppressWarnings("unchecked")
     @Override
     public boolean dropSubtree(TreeNode<T> subtree) {
         log.debug("Dropping subtree {} from node {} \n\n", subtree, this);
@@ -209,14 +354,51 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
             System.arraycopy(subtrees, mSubtreeIndex + 1, subtrees, mSubtreeIndex, mNumShift);
         }
         subtrees[--subtreesSize] = null;
+        updateSubtreeIndices(mSubtreeIndex);
+        if (subtree instanceof ArrayTreeNode) {
+            ((ArrayTreeNode<T>) subtree).subtreeIndex = -1;
+        }
         TreeNode.unlinkParent(subtree);
         return true;
     }
 
+    /**
+     * Appends the subtree to the current tree node while the tree is being
+     * built in bulk, skipping the checks and the bookkeeping of {@link #add(TreeNode)}
+     * <p>
+     * The subtrees array is expected to have been sized for all of the subtrees
+     * beforehand
+     *
+     * @param subtree new tree node to append as the last subtree
+     */
+    void appendBuiltSubtree(ArrayTreeNode<T> subtree) {
+        TreeNode.linkBuiltParent(subtree, this);
+        subtree.subtreeIndex = subtreesSize;
+        subtrees[subtreesSize++] = subtree;
+    }
+
+    /**
+     * Stores the index within the subtrees array in each of the
+     * {@link ArrayTreeNode} subtrees, starting from the specified index
+     *
+     * @param fromIndex index of the first subtree to update
+     */
+    @SuppressWarnings("unchecked")
+    private void updateSubtreeIndices(int fromIndex) {
+        for (int i = fromIndex; i < subtreesSize; i++) {
+            if (subtrees[i] instanceof ArrayTreeNode) {
+                ((ArrayTreeNode<T>) subtrees[i]).subtreeIndex = i;
+            }
+        }
+    }
+
     /**
      * Returns the index of the first occurrence of the specified subtree
      * within subtrees array; {@code -1} if the subtrees array does not contain
      * such subtree
+     * <p>
+     * The index stored in an {@link ArrayTreeNode} subtree is used when it is
+     * valid, so the subtrees array is scanned only for the other subtree types
      *
      * @param subtree subtree to find the index of
      * @return index of the first occurrence of the specified subtree within
@@ -226,6 +408,15 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
     @SuppressWarnings("unchecked")
     private int indexOf(TreeNode<T> subtree) {
         log.debug("Finding the indexOf subtree {} in node : {} \n\n", subtree, this);
+        if (!equals(subtree.parent())) {
+            return -1;
+        }
+        if (subtree instanceof ArrayTreeNode) {
+            int mSubtreeIndex = ((ArrayTreeNode<T>) subtree).subtreeIndex;
+            if (mSubtreeIndex >= 0 && mSubtreeIndex < subtreesSize && subtrees[mSubtreeIndex].equals(subtree)) {
+                return mSubtreeIndex;
+            }
+        }
         int i = 0;
         while (i < subtreesSize) {
             TreeNode<T> mSubtree = (TreeNode<T>) subtrees[i];
@@ -245,60 +436,17 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
     @Override
     public void clear() {
         if (!isLeaf()) {
-            IntStream.range(0, subtreesSize).mapToObj(i -> (TreeNode<T>) subtrees[i]).forEachOrdered(TreeNode::unlinkParent);
+            for (int i = 0; i < subtreesSize; i++) {
+                if (subtrees[i] instanceof ArrayTreeNode) {
+                    ((ArrayTreeNode<T>) subtrees[i]).subtreeIndex = -1;
+                }
+                TreeNode.unlinkParent((TreeNode<T>) subtrees[i]);
+            }
             subtrees = new Object[branchingFactor];
             subtreesSize = 0;
         }
     }
 
-    /**
-     * Returns an iterator over the elements in this tree in proper sequence
-     * <p>
-     * The returned iterator is <b>fail-fast</b>
-     *
-     * @return an iterator over the elements in this tree in proper sequence
-     */
-    @Override
-    @Nonnull
-    public TreeNodeIterator iterator() {
-        return new TreeNodeIterator() {
-
-            /**
-             * Returns the leftmost node of the current tree node if the
-             * current tree node is not a leaf
-             *
-             * @return leftmost node of the current tree node if the current
-             *         tree node is not a leaf
-             * @throws TreeNodeException an exception that is thrown in case
-             *                           if the current tree node is a leaf
-             */
-            @SuppressWarnings("unchecked")
-            @Override
-            protected TreeNode<T> leftMostNode() {
-                return (TreeNode<T>) subtrees[0];
-            }
-
-            /**
-             * Returns the right sibling node of the current tree node if the
-             * current tree node is not root
-             *
-             * @return right sibling node of the current tree node if the current
-             *         tree node is not root
-             * @throws TreeNodeException an exception that may be thrown in case if
-             *                           the current tree node is root
-             */
-            @Override
-            @SuppressWarnings("unchecked")
-            protected TreeNode<T> rightSiblingNode() {
-                log.debug("Getting the right sibling to node : {}", this);
-                ArrayTreeNode<T> mParent = (ArrayTreeNode<T>) ArrayTreeNode.super.parent();
-                int rightSiblingNodeIndex = mParent.indexOf(ArrayTreeNode.this) + 1;
-                log.debug("The right sibling is : {}", rightSiblingNodeIndex);
-                return rightSiblingNodeIndex < mParent.subtreesSize ? (TreeNode<T>) mParent.subtrees[rightSiblingNodeIndex] : null;
-            }
-        };
-    }
-
     /**
      * Checks whether the current tree node is a leaf, e.g. does not have any
      * subtrees
@@ -324,7 +472,6 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
      * @return {@code true} if among the current tree node subtrees
      *         there is a specified subtree; {@code false} otherwise
      */
-    @SuppressWarnings("unchecked")
     @Override
     public boolean hasSubtree(TreeNode<T> subtree) {
         log.debug("Checking if : {} has subtree : {}", this, subtree);
@@ -332,141 +479,7 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
             log.debug("Subtree {} not found", subtree);
             return false;
         }
-        return IntStream.range(0, subtreesSize).mapToObj(i -> (TreeNode<T>) subtrees[i]).anyMatch(subtree::equals);
-    }
-
-    /**
-     * Checks whether the current tree node with all of its descendants
-     * (entire tree) contains the specified node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param node node whose presence within the current tree node with
-     *             all of its descendants (entire tree) is to be checked
-     * @return {@code true} if the current node with all of its descendants
-     *         (entire tree) contains the specified node; {@code false}
-     *         otherwise
-     */
-    @SuppressWarnings("unchecked")
-    @Override
-    public boolean contains(TreeNode<T> node) {
-        log.debug("Checking if node: {} contains node : {}", this, node);
-        if (node == null || isLeaf() || node.isRoot()) {
-            log.debug("Node: {} not found in node : {}", node, this);
-            return false;
-        }
-        int i = 0;
-        while (i < subtreesSize) {
-            TreeNode<T> subtree = (TreeNode<T>) subtrees[i];
-            if (subtree.equals(node)) {
-                log.debug("Node: {} has been found at index : {}", node, this.indexOf(node));
-                return true;
-            }
-            if (subtree.contains(node)) {
-                log.debug("Node: {} has been found at index : {}", node, this.indexOf(node));
-                return true;
-            }
-            i++;
-        }
-        log.debug("Node: {} not found in node : {}", node, this);
-        return false;
-    }
-
-    /**
-     * Removes the first occurrence of the specified node from the entire tree,
-     * starting from the current tree node and traversing in a pre order manner
-     * <p>
-     * Checks whether the current tree node was changed as a result of the call
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param node node to remove from the entire tree
-     * @return {@code true} if the current tree node was changed as a result of
-     *         the call; {@code false} otherwise
-     */
-    @SuppressWarnings("unchecked")
-    @Override
-    public boolean remove(TreeNode<T> node) {
-        log.debug("Removing the node: {} from the subtree: {}", node, this);
-        if (node == null || isLeaf() || node.isRoot()) {
-            log.debug("The node : {} has not been removed", node);
-            return false;
-        }
-        if (dropSubtree(node)) {
-            return true;
-        }
-        return IntStream.range(0, subtreesSize).mapToObj(i -> (TreeNode<T>) subtrees[i]).anyMatch(subtree -> subtree.remove(node));
-    }
-
-    /**
-     * Traverses the tree in a pre ordered manner starting from the
-     * current tree node and performs the traversal action on each
-     * traversed tree node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param action action, which is to be performed on each tree
-     *               node, while traversing the tree
-     */
-    @SuppressWarnings("unchecked")
-    @Override
-    public void traversePreOrder(TraversalAction<TreeNode<T>> action) {
-        log.debug("Performing postOrder traversal on : {} with {} subtrees", this, subtreesSize);
-        if (action.isIncomplete()) {
-            action.perform(this);
-            if (!isLeaf()) {
-                IntStream.range(0, subtreesSize).mapToObj(i -> (TreeNode<T>) subtrees[i]).forEachOrdered(subtree -> subtree.traversePreOrder(action));
-            }
-        }
-        log.debug("postOrder traversal completed...");
-    }
-
-    /**
-     * Traverses the tree in a post ordered manner starting from the
-     * current tree node and performs the traversal action on each
-     * traversed tree node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param action action, which is to be performed on each tree
-     *               node, while traversing the tree
-     */
-    @SuppressWarnings("unchecked")
-    @Override
-    public void traversePostOrder(TraversalAction<TreeNode<T>> action) {
-        log.debug("Performing postOrder traversal on : {} with {} subtrees", this, subtreesSize);
-        if (action.isIncomplete()) {
-            if (!isLeaf()) {
-                IntStream.range(0, subtreesSize).mapToObj(i -> (TreeNode<T>) subtrees[i]).forEachOrdered(subtree -> subtree.traversePostOrder(action));
-            }
-            action.perform(this);
-        }
-        log.debug("postOrder traversal completed...");
-    }
-
-    /**
-     * Returns the height of the current tree node, e.g. the number of edges
-     * on the longest downward path between that node and a leaf
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @return height of the current tree node, e.g. the number of edges
-     * on the longest downward path between that node and a leaf
-     */
-    @SuppressWarnings("unchecked")
-    @Override
-    public int height() {
-        if (isLeaf()) {
-            return 0;
-        }
-        int height = 0;
-        int i = 0;
-        while (i < subtreesSize) {
-            TreeNode<T> subtree = (TreeNode<T>) subtrees[i];
-            height = Math.max(height, subtree.height());
-            i++;
-        }
-        return height + 1;
+        return indexOf(subtree) >= 0;
     }
 
     /**
@@ -482,16 +495,17 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
      */
     @Override
     public boolean addSubtrees(Collection<? extends MultiTreeNode<T>> subtrees) {
-        log.debug("Adding {} subtrees to ArrayTreeNode id {}", subtrees.size(), this);
         if (TreeNode.areAllNulls(subtrees)) {
             return false;
         }
+        log.debug("Adding {} subtrees to ArrayTreeNode id {}", subtrees.size(), this);
         subtrees.forEach(subtree -> linkParent(subtree, this));
         Object[] subtreesArray = subtrees.toArray();
         int subtreesArrayLength = subtreesArray.length;
         ensureSubtreesCapacity(subtreesSize + subtreesArrayLength);
         System.arraycopy(subtreesArray, 0, this.subtrees, subtreesSize, subtreesArrayLength);
         subtreesSize += subtreesArrayLength;
+        updateSubtreeIndices(subtreesSize - subtreesArrayLength);
         return subtreesArrayLength != 0;
     }
 
@@ -529,4 +543,17 @@ public class ArrayTreeNode<T> extends MultiTreeNode<T> {
         return siblings;
     }
 
+    /**
+     * Restores the empty subtrees array of the current tree node; the subtrees
+     * are linked back by the serialized form of the tree
+     *
+     * @param in stream to read the current tree node from
+     * @throws IOException            if an I/O error occurs
+     * @throws ClassNotFoundException if the class of a serialized object can not be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        subtrees = new Object[branchingFactor];
+        subtreeIndex = -1;
+    }
 }
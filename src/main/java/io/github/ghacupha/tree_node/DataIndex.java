@@ -0,0 +1,170 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the nodes of a tree by their data, kept by the root tree node
+ * once {@link TreeNode#enableDataIndex()} has been called
+ * <p>
+ * Most data objects are stored in a single node, so a single node is mapped
+ * directly and a set is only created for the data shared by several nodes
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+final class DataIndex<T> implements Serializable {
+
+    /**
+     * Current UID of this object used for serialization
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Either the single node or the set of nodes for each data object
+     */
+    private final Map<T, Object> nodes = new HashMap<>();
+
+    /**
+     * Returns the indexed nodes, which have the specified data
+     *
+     * @param data data of the nodes
+     * @return nodes, which have the specified data
+     */
+    @SuppressWarnings("unchecked")
+    Collection<TreeNode<T>> get(T data) {
+        Object indexed = nodes.get(data);
+        if (indexed == null) {
+            return Collections.emptySet();
+        }
+        if (indexed instanceof TreeNode) {
+            return Collections.singleton((TreeNode<T>) indexed);
+        }
+        return Collections.unmodifiableSet((Set<TreeNode<T>>) indexed);
+    }
+
+    /**
+     * Indexes the node by the specified data
+     *
+     * @param data data of the node
+     * @param node node to index
+     */
+    @SuppressWarnings("unchecked")
+    void add(T data, TreeNode<T> node) {
+        Object indexed = nodes.get(data);
+        if (indexed == null) {
+            nodes.put(data, node);
+        } else if (indexed instanceof TreeNode) {
+            if (!indexed.equals(node)) {
+                Set<TreeNode<T>> sharing = new LinkedHashSet<>();
+                sharing.add((TreeNode<T>) indexed);
+                sharing.add(node);
+                nodes.put(data, sharing);
+            }
+        } else {
+            ((Set<TreeNode<T>>) indexed).add(node);
+        }
+    }
+
+    /**
+     * Removes the node indexed by the specified data
+     *
+     * @param data data of the node
+     * @param node node to remove from the index
+     */
+    @SuppressWarnings("unchecked")
+    void remove(T data, TreeNode<T> node) {
+        Object indexed = nodes.get(data);
+        if (indexed instanceof Set) {
+            Set<TreeNode<T>> sharing = (Set<TreeNode<T>>) indexed;
+            sharing.remove(node);
+            if (sharing.size() == 1) {
+                nodes.put(data, sharing.iterator().next());
+            }
+        } else if (node.equals(indexed)) {
+            nodes.remove(data);
+        }
+    }
+
+    /**
+     * Indexes the specified subtree node and all of its descendants
+     *
+     * @param subtree subtree to index
+     */
+    void addSubtree(TreeNode<T> subtree) {
+        TreeTraversal.preOrder(subtree, new TraversalAction<TreeNode<T>>() {
+            @Override
+            public void perform(TreeNode<T> node) {
+                add(node.data(), node);
+            }
+
+            @Override
+            public boolean isIncomplete() {
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Adds all of the nodes of the specified index to this one
+     *
+     * @param index index to merge into this one
+     */
+    @SuppressWarnings("unchecked")
+    void addAll(DataIndex<T> index) {
+        for (Map.Entry<T, Object> entry : index.nodes.entrySet()) {
+            if (entry.getValue() instanceof TreeNode) {
+                add(entry.getKey(), (TreeNode<T>) entry.getValue());
+            } else {
+                for (TreeNode<T> node : (Set<TreeNode<T>>) entry.getValue()) {
+                    add(entry.getKey(), node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the specified subtree node and all of its descendants from
+     * this index and returns them as a separate index
+     *
+     * @param subtree subtree to remove from the index
+     * @return index of the removed subtree
+     */
+    DataIndex<T> removeSubtree(TreeNode<T> subtree) {
+        final DataIndex<T> subtreeIndex = new DataIndex<>();
+        TreeTraversal.preOrder(subtree, new TraversalAction<TreeNode<T>>() {
+            @Override
+            public void perform(TreeNode<T> node) {
+                remove(node.data(), node);
+                subtreeIndex.add(node.data(), node);
+            }
+
+            @Override
+            public boolean isIncomplete() {
+                return true;
+            }
+        });
+        return subtreeIndex;
+    }
+}
@@ -0,0 +1,418 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable compact copy of a tree, produced by {@link TreeNode#freeze()}
+ * <p>
+ * The tree nodes are numbered in a pre ordered manner, the root being
+ * {@code 0}, and the tree structure is stored in the parallel arrays indexed
+ * by these numbers rather than in the tree node objects. The descendants of
+ * any tree node follow it immediately, so that the traversals, the searches
+ * and the size and height calculations are plain loops over the arrays
+ * <p>
+ * Methods accepting a tree node number throw {@link IndexOutOfBoundsException}
+ * if the number is out of the range {@code [0, size())}
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class FrozenTree<T> implements Serializable {
+
+    private static final Logger log = LoggerFactory.getLogger(FrozenTree.class);
+
+    /**
+     * Current class serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number returned in place of the missing tree node
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Data of the tree nodes
+     */
+    private final Object[] data;
+
+    /**
+     * Parent numbers of the tree nodes
+     */
+    private final int[] parents;
+
+    /**
+     * Numbers of the first subtrees of the tree nodes
+     */
+    private final int[] firstChildren;
+
+    /**
+     * Numbers of the next siblings of the tree nodes
+     */
+    private final int[] nextSiblings;
+
+    /**
+     * Numbers following the last descendants of the tree nodes
+     */
+    private final int[] subtreeEnds;
+
+    /**
+     * Levels of the tree nodes, relative to the root of the frozen tree
+     */
+    private final int[] levels;
+
+    /**
+     * Copies the tree, which has the specified tree node as root
+     *
+     * @param tree root of the tree to copy
+     */
+    FrozenTree(TreeNode<T> tree) {
+        int size = (int) tree.size();
+        log.debug("Freezing the tree of {} tree nodes", size);
+        data = new Object[size];
+        parents = new int[size];
+        firstChildren = new int[size];
+        nextSiblings = new int[size];
+        subtreeEnds = new int[size];
+        levels = new int[size];
+        Arrays.fill(firstChildren, NO_NODE);
+        Arrays.fill(nextSiblings, NO_NODE);
+        // numbers of the current tree node ancestors, the nearest one on top
+        int[] ancestors = new int[size];
+        TreeNode<?>[] ancestorNodes = new TreeNode<?>[size];
+        int top = -1;
+        int[] lastChildren = new int[size];
+        int number = 0;
+        TreeNode<T> node = tree;
+        while (node != null) {
+            while (top >= 0 && ancestorNodes[top] != node.parent()) {
+                subtreeEnds[ancestors[top]] = number;
+                ancestorNodes[top--] = null;
+            }
+            data[number] = node.data();
+            levels[number] = top + 1;
+            if (top < 0) {
+                parents[number] = NO_NODE;
+            } else {
+                int parent = ancestors[top];
+                parents[number] = parent;
+                if (firstChildren[parent] == NO_NODE) {
+                    firstChildren[parent] = number;
+                } else {
+                    nextSiblings[lastChildren[parent]] = number;
+                }
+                lastChildren[parent] = number;
+            }
+            ancestors[++top] = number;
+            ancestorNodes[top] = node;
+            number++;
+            node = TreeTraversal.nextPreOrdered(tree, node, true);
+        }
+        for (; top >= 0; top--) {
+            subtreeEnds[ancestors[top]] = number;
+        }
+    }
+
+    /**
+     * Returns the number of the tree nodes in the frozen tree
+     *
+     * @return number of the tree nodes in the frozen tree
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns the number of the tree nodes in the subtree of the specified
+     * tree node, including that tree node itself
+     *
+     * @param node number of the tree node
+     * @return number of the tree nodes in the subtree of the tree node
+     */
+    public int size(int node) {
+        return subtreeEnds[checkNode(node)] - node;
+    }
+
+    /**
+     * Returns the height of the frozen tree, e.g. the number of edges on the
+     * longest downward path between the root and a leaf
+     *
+     * @return height of the frozen tree
+     */
+    public int height() {
+        return height(0);
+    }
+
+    /**
+     * Returns the height of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return height of the tree node
+     */
+    public int height(int node) {
+        int maxLevel = levels[checkNode(node)];
+        for (int i = node + 1, end = subtreeEnds[node]; i < end; i++) {
+            maxLevel = Math.max(maxLevel, levels[i]);
+        }
+        return maxLevel - levels[node];
+    }
+
+    /**
+     * Returns the level of the specified tree node, the root being at level {@code 0}
+     *
+     * @param node number of the tree node
+     * @return level of the tree node
+     */
+    public int level(int node) {
+        return levels[checkNode(node)];
+    }
+
+    /**
+     * Returns the data stored in the specified tree node
+     *
+     * @param node number of the tree node
+     * @return data stored in the tree node
+     */
+    @SuppressWarnings("unchecked")
+    public T data(int node) {
+        return (T) data[checkNode(node)];
+    }
+
+    /**
+     * Returns the parent of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the parent; {@link #NO_NODE} for the root
+     */
+    public int parent(int node) {
+        return parents[checkNode(node)];
+    }
+
+    /**
+     * Returns the first subtree of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the first subtree; {@link #NO_NODE} for a leaf
+     */
+    public int firstChild(int node) {
+        return firstChildren[checkNode(node)];
+    }
+
+    /**
+     * Returns the subtree of the specified tree node parent, which
+     * follows that tree node
+     *
+     * @param node number of the tree node
+     * @return number of the next sibling; {@link #NO_NODE} if there is none
+     */
+    public int nextSibling(int node) {
+        return nextSiblings[checkNode(node)];
+    }
+
+    /**
+     * Returns the number of the subtrees of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the subtrees of the tree node
+     */
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChildren[checkNode(node)]; child != NO_NODE; child = nextSiblings[child]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the specified tree node is a leaf
+     *
+     * @param node number of the tree node
+     * @return {@code true} if the tree node has no subtrees; {@code false} otherwise
+     */
+    public boolean isLeaf(int node) {
+        return firstChildren[checkNode(node)] == NO_NODE;
+    }
+
+    /**
+     * Searches the tree node, which has the specified data, within the
+     * frozen tree and returns the first occurrence of it
+     *
+     * @param data data to find the tree node with
+     * @return number of the first tree node with the data; {@link #NO_NODE} if there is none
+     */
+    public int find(T data) {
+        return find(0, data);
+    }
+
+    /**
+     * Searches the tree node, which has the specified data, within the
+     * subtree of the specified tree node and returns the first occurrence of it
+     *
+     * @param node number of the tree node to start the search from
+     * @param data data to find the tree node with
+     * @return number of the first tree node with the data; {@link #NO_NODE} if there is none
+     */
+    public int find(int node, T data) {
+        for (int i = checkNode(node), end = subtreeEnds[node]; i < end; i++) {
+            if (data == null ? this.data[i] == null : data.equals(this.data[i])) {
+                return i;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Searches all of the tree nodes, which have the specified data, within
+     * the frozen tree
+     *
+     * @param data data to find the tree nodes with
+     * @return numbers of the tree nodes with the data in an ascending order
+     */
+    public int[] findAll(T data) {
+        int[] found = new int[8];
+        int count = 0;
+        for (int i = 0; i < this.data.length; i++) {
+            if (data == null ? this.data[i] == null : data.equals(this.data[i])) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count << 1);
+                }
+                found[count++] = i;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Traverses the frozen tree in a pre ordered manner and performs the
+     * action on the number of each tree node
+     *
+     * @param action action to perform on each tree node number
+     */
+    public void traversePreOrder(IntConsumer action) {
+        traversePreOrder(0, action);
+    }
+
+    /**
+     * Traverses the subtree of the specified tree node in a pre ordered manner
+     * and performs the action on the number of each tree node
+     *
+     * @param node   number of the tree node to start the traversal from
+     * @param action action to perform on each tree node number
+     */
+    public void traversePreOrder(int node, IntConsumer action) {
+        for (int i = checkNode(node), end = subtreeEnds[node]; i < end; i++) {
+            action.accept(i);
+        }
+    }
+
+    /**
+     * Traverses the frozen tree in a post ordered manner and performs the
+     * action on the number of each tree node
+     *
+     * @param action action to perform on each tree node number
+     */
+    public void traversePostOrder(IntConsumer action) {
+        traversePostOrder(0, action);
+    }
+
+    /**
+     * Traverses the subtree of the specified tree node in a post ordered manner
+     * and performs the action on the number of each tree node
+     *
+     * @param node   number of the tree node to start the traversal from
+     * @param action action to perform on each tree node number
+     */
+    public void traversePostOrder(int node, IntConsumer action) {
+        int start = checkNode(node);
+        int current = deepestFirst(start);
+        while (current != start) {
+            action.accept(current);
+            int sibling = nextSiblings[current];
+            current = sibling == NO_NODE ? parents[current] : deepestFirst(sibling);
+        }
+        action.accept(start);
+    }
+
+    /**
+     * Returns the tree node reached by following the first subtrees
+     * starting from the specified tree node
+     */
+    private int deepestFirst(int node) {
+        while (firstChildren[node] != NO_NODE) {
+            node = firstChildren[node];
+        }
+        return node;
+    }
+
+    /**
+     * Creates the mutable copy of the frozen tree made of the {@link ArrayTreeNode}
+     * instances, each one sized to the exact number of its subtrees
+     *
+     * @return root of the mutable copy of the frozen tree
+     */
+    public TreeNode<T> thaw() {
+        return thawNodes(node -> new ArrayTreeNode<>(data(node), childCount(node)));
+    }
+
+    /**
+     * Creates the mutable copy of the frozen tree made of the tree nodes
+     * created by the specified factory
+     *
+     * @param factory function creating the new tree node from the data
+     * @return root of the mutable copy of the frozen tree
+     */
+    public TreeNode<T> thaw(Function<? super T, ? extends TreeNode<T>> factory) {
+        return thawNodes(node -> factory.apply(data(node)));
+    }
+
+    /**
+     * Creates the mutable copy of the frozen tree made of the tree nodes
+     * created from the tree node numbers
+     */
+    private TreeNode<T> thawNodes(IntFunction<? extends TreeNode<T>> factory) {
+        log.debug("Thawing the frozen tree of {} tree nodes", data.length);
+        // the generic array can not be created, so the raw one is cast
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        TreeNode<T>[] nodes = (TreeNode<T>[]) new TreeNode[data.length];
+        for (int i = 0; i < data.length; i++) {
+            nodes[i] = factory.apply(i);
+            if (parents[i] != NO_NODE) {
+                nodes[parents[i]].add(nodes[i]);
+            }
+        }
+        return nodes[0];
+    }
+
+    /**
+     * Checks the specified tree node number is within the frozen tree
+     */
+    private int checkNode(int node) {
+        if (node < 0 || node >= data.length) {
+            throw new IndexOutOfBoundsException("Tree node " + node + " is out of the frozen tree of size " + data.length);
+        }
+        return node;
+    }
+}
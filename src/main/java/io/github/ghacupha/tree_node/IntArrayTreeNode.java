@@ -0,0 +1,118 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Implementation of the K-ary (multi node) tree data structure, based on
+ * the array of subtrees, which stores a primitive {@code int} value in each tree node
+ * without boxing it
+ */
+public class IntArrayTreeNode extends ArrayTreeNode<Integer> implements IntTreeNode {
+
+    /**
+     * Current class serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Value stored in the current tree node
+     */
+    private int data;
+
+    /**
+     * Constructs the {@link IntArrayTreeNode} instance
+     *
+     * @param data value to store in the current tree node
+     */
+    public IntArrayTreeNode(int data) {
+        super(null);
+        this.data = data;
+    }
+
+    /**
+     * Constructs the {@link IntArrayTreeNode} instance
+     *
+     * @param data            value to store in the current tree node
+     * @param branchingFactor initial branching factor, that is the number
+     *                        of subtrees the current tree node can have
+     *                        before getting resized
+     */
+    public IntArrayTreeNode(int data, int branchingFactor) {
+        super(null, branchingFactor);
+        this.data = data;
+    }
+
+    @Override
+    public int intData() {
+        return data;
+    }
+
+    @Override
+    TreeNode<Integer> createLike(Integer data) {
+        return getClass() == IntArrayTreeNode.class ? new IntArrayTreeNode(data, branchingFactor()) : null;
+    }
+
+    @Override
+    boolean isLike(TreeNode<Integer> node) {
+        return getClass() == IntArrayTreeNode.class && node.getClass() == IntArrayTreeNode.class
+                && ((IntArrayTreeNode) node).branchingFactor() == branchingFactor();
+    }
+
+    /**
+     * Returns the boxed value stored in the current tree node
+     *
+     * @return boxed value stored in the current tree node
+     */
+    @Override
+    public Integer data() {
+        return data;
+    }
+
+    /**
+     * Stores the value into the current tree node
+     *
+     * @param data value to store into the current tree node
+     * @throws NullPointerException if the value is {@code null}
+     */
+    @Override
+    public void setData(Integer data) {
+        setData(data.intValue());
+    }
+
+    @Override
+    public void setData(int data) {
+        if (isDataIndexed()) {
+            beforeDataChange(data);
+        } else {
+            invalidateSubtreeHashes();
+        }
+        this.data = data;
+    }
+
+    @Override
+    public TreeNode<Integer> find(int data) {
+        return PrimitiveTreeNodes.find(this, data);
+    }
+
+    @Override
+    public void traversePreOrder(IntConsumer action) {
+        PrimitiveTreeNodes.traversePreOrder(this, action);
+    }
+}
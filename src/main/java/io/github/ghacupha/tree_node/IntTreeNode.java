@@ -0,0 +1,69 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Tree node, which stores its data as a primitive {@code int} value rather
+ * than as a boxed {@link Integer}
+ * <p>
+ * {@link TreeNode#data()} of such a tree node boxes the value on each call,
+ * whereas the methods of this interface never do for the tree nodes of this
+ * kind. The tree nodes of other kinds within the same tree are still served,
+ * through their boxed data
+ *
+ * @see IntArrayTreeNode
+ * @see IntLeftChildTreeNode
+ */
+public interface IntTreeNode {
+
+    /**
+     * Returns the primitive value stored in the current tree node
+     *
+     * @return primitive value stored in the current tree node
+     */
+    int intData();
+
+    /**
+     * Stores the primitive value into the current tree node
+     *
+     * @param data primitive value to store into the current tree node
+     */
+    void setData(int data);
+
+    /**
+     * Searches the tree node within the tree, which has the specified value,
+     * starting from the current tree node and returns the first occurrence of it
+     *
+     * @param data value to find the tree node with
+     * @return first occurrence of the searched tree node with the value
+     *         specified; {@code null} if there is none
+     */
+    TreeNode<Integer> find(int data);
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the current
+     * tree node and passes the value of each traversed tree node to the action
+     *
+     * @param action action, which is to be performed on the value of each tree node
+     * @throws NullPointerException if a traversed tree node of another kind
+     *                              holds {@code null}
+     */
+    void traversePreOrder(IntConsumer action);
+}
@@ -18,15 +18,15 @@
 package io.github.ghacupha.tree_node;
 
 
-import io.github.ghacupha.tree_node.TreeNode.TreeNodeIterator;
 import io.github.ghacupha.tree_node.util.TreeNodeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
 
 /**
  * Implementation of the K-ary (multi node) tree data structure,
@@ -39,19 +39,21 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
     private static final Logger log = LoggerFactory.getLogger(LeftChildTreeNode.class);
 
     /**
-     * Current UID of this object used for serialization
+     * Current UID of this object used for serialization; raised since the
+     * tree is written by its compact serialized form, so that the streams
+     * written before fail to be read instead of losing the subtree references
      */
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /**
      * A reference to the first subtree tree node of the current tree node
      */
-    private LeftChildTreeNode<T> leftMostNode;
+    private transient LeftChildTreeNode<T> leftMostNode;
 
     /**
      * A reference to the right sibling tree node of the current tree node
      */
-    private LeftChildTreeNode<T> rightSiblingNode;
+    private transient LeftChildTreeNode<T> rightSiblingNode;
 
     /**
      * A reference to the last subtree node of the current tree node
@@ -59,7 +61,7 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
      * Used to avoid the discovery of the last subtree node. As a result
      * significantly optimized such operations like addition etc.
      */
-    private LeftChildTreeNode<T> lastSubtreeNode;
+    private transient LeftChildTreeNode<T> lastSubtreeNode;
 
     /**
      * Creates an instance of this class
@@ -71,6 +73,16 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
         log.debug("LeftChildTreeNode created with the data : {}", data);
     }
 
+    @Override
+    TreeNode<T> createLike(T data) {
+        return getClass() == LeftChildTreeNode.class ? new LeftChildTreeNode<>(data) : null;
+    }
+
+    @Override
+    boolean isLike(TreeNode<T> node) {
+        return getClass() == LeftChildTreeNode.class && node.getClass() == LeftChildTreeNode.class;
+    }
+
     /**
      * Returns the collection of the child nodes of the current node
      * with all of its proper descendants, if any
@@ -97,6 +109,121 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
         return subtrees;
     }
 
+    /**
+     * Returns an iterator over the child nodes of the current node, following
+     * the right sibling references from the leftmost subtree
+     *
+     * @return iterator over the child nodes of the current node
+     */
+    @Override
+    protected Iterator<LeftChildTreeNode<T>> subtreesIterator() {
+        return new Iterator<LeftChildTreeNode<T>>() {
+
+            /**
+             * The subtree to be returned next
+             */
+            private LeftChildTreeNode<T> nextSubtree = leftMostNode;
+
+            /**
+             * The subtree returned last
+             */
+            private LeftChildTreeNode<T> lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return nextSubtree != null;
+            }
+
+            @Override
+            public LeftChildTreeNode<T> next() {
+                if (nextSubtree == null) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = nextSubtree;
+                nextSubtree = lastReturned.rightSiblingNode;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                dropSubtree(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of the child nodes of the current node
+     * <p>
+     * Counts the subtrees by following the right sibling references
+     *
+     * @return number of the child nodes of the current node
+     */
+    @Override
+    public int childCount() {
+        int childCount = 0;
+        for (LeftChildTreeNode<T> subtree = leftMostNode; subtree != null; subtree = subtree.rightSiblingNode) {
+            childCount++;
+        }
+        return childCount;
+    }
+
+    /**
+     * Returns the child node of the current node at the specified position
+     * <p>
+     * Follows the right sibling references from the leftmost subtree, so
+     * takes the time proportional to the index
+     *
+     * @param index position of the child node among the child nodes of the
+     *              current node
+     * @return child node of the current node at the specified position
+     * @throws IndexOutOfBoundsException if the index is negative or not
+     *                                   less than {@link #childCount()}
+     */
+    @Override
+    public TreeNode<T> childAt(int index) {
+        LeftChildTreeNode<T> subtree = index < 0 ? null : leftMostNode;
+        for (int i = 0; i < index && subtree != null; i++) {
+            subtree = subtree.rightSiblingNode;
+        }
+        if (subtree == null) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Child count: " + childCount());
+        }
+        return subtree;
+    }
+
+    /**
+     * Returns the first child node of the current node; {@code null} if the
+     * current node is a leaf
+     *
+     * @return first child node of the current node; {@code null} if the
+     * current node is a leaf
+     */
+    @Override
+    public TreeNode<T> firstChild() {
+        return leftMostNode;
+    }
+
+    /**
+     * Returns the child node of the parent, which follows the current node;
+     * {@code null} if the current node is root or the last child node of
+     * its parent
+     *
+     * @return child node of the parent, which follows the current node;
+     * {@code null} if the current node is root or the last child node of
+     * its parent
+     */
+    @Override
+    public TreeNode<T> nextSibling() {
+        if (!(parent() instanceof LeftChildTreeNode)) {
+            return super.nextSibling();
+        }
+        return rightSiblingNode;
+    }
+
     /**
      * Adds the subtree with all of its descendants to the current tree node
      * <p>
@@ -144,6 +271,9 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
             return false;
         }
         if (leftMostNode.equals(subtree)) {
+            if (lastSubtreeNode == leftMostNode) {
+                lastSubtreeNode = null;
+            }
             leftMostNode = leftMostNode.rightSiblingNode;
             TreeNode.unlinkParent(subtree);
             ((LeftChildTreeNode<T>) subtree).rightSiblingNode = null;
@@ -152,6 +282,9 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
             LeftChildTreeNode<T> nextSubtree = leftMostNode;
             while (nextSubtree.rightSiblingNode != null) {
                 if (nextSubtree.rightSiblingNode.equals(subtree)) {
+                    if (lastSubtreeNode == nextSubtree.rightSiblingNode) {
+                        lastSubtreeNode = nextSubtree;
+                    }
                     TreeNode.unlinkParent(subtree);
                     nextSubtree.rightSiblingNode = nextSubtree.rightSiblingNode.rightSiblingNode;
                     ((LeftChildTreeNode<T>) subtree).rightSiblingNode = null;
@@ -177,56 +310,13 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
                 TreeNode.unlinkParent(nextNode);
                 LeftChildTreeNode<T> nextNodeRightSiblingNode = nextNode.rightSiblingNode;
                 nextNode.rightSiblingNode = null;
-                nextNode.lastSubtreeNode = null;
                 nextNode = nextNodeRightSiblingNode;
             }
             leftMostNode = null;
+            lastSubtreeNode = null;
         }
     }
 
-    /**
-     * Returns an iterator over the elements in this tree in proper sequence
-     * <p>
-     * The returned iterator is <b>fail-fast</b>
-     *
-     * @return an iterator over the elements in this tree in proper sequence
-     */
-    @Override
-    @Nonnull
-    public TreeNodeIterator iterator() {
-        return new TreeNodeIterator() {
-
-            /**
-             * Returns the leftmost node of the current tree node if the
-             * current tree node is not a leaf
-             *
-             * @return leftmost node of the current tree node if the current
-             *         tree node is not a leaf
-             * @throws TreeNodeException an exception that is thrown in case
-             *                           if the current tree node is a leaf
-             */
-            @Override
-            protected TreeNode<T> leftMostNode() {
-                return leftMostNode;
-            }
-
-            /**
-             * Returns the right sibling node of the current tree node if the
-             * current tree node is not root
-             *
-             * @return right sibling node of the current tree node if the current
-             *         tree node is not root
-             * @throws TreeNodeException an exception that may be thrown in case if
-             *                           the current tree node is root
-             */
-            @Override
-            protected TreeNode<T> rightSiblingNode() {
-                return rightSiblingNode;
-            }
-
-        };
-    }
-
     /**
      * Checks whether the current tree node is a leaf, e.g. does not have any
      * subtrees
@@ -243,7 +333,8 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
      * Checks whether among the current tree node subtrees there is
      * a specified subtree
      * <p>
-     * Overridden to have a faster array implementation
+     * Overridden to consult the parent reference of the subtree instead
+     * of scanning the sibling chain
      *
      * @param subtree subtree whose presence within the current tree
      *                node children is to be checked
@@ -256,155 +347,7 @@ public class LeftChildTreeNode<T> extends MultiTreeNode<T> {
         if (subtree == null || isLeaf() || subtree.isRoot()) {
             return false;
         }
-        LeftChildTreeNode<T> nextSubtree = leftMostNode;
-        while (nextSubtree != null) {
-            if (nextSubtree.equals(subtree)) {
-                return true;
-            } else {
-                nextSubtree = nextSubtree.rightSiblingNode;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Checks whether the current tree node with all of its descendants
-     * (entire tree) contains the specified node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param node node whose presence within the current tree node with
-     *             all of its descendants (entire tree) is to be checked
-     * @return {@code true} if the current node with all of its descendants
-     * (entire tree) contains the specified node; {@code false}
-     * otherwise
-     */
-    @Override
-    public boolean contains(TreeNode<T> node) {
-        log.debug("Checking if the node: {} contains the node {}\n\n", this, node);
-        if (node == null || isLeaf() || node.isRoot()) {
-            return false;
-        }
-        LeftChildTreeNode<T> nextSubtree = leftMostNode;
-        while (nextSubtree != null) {
-            if (nextSubtree.equals(node)) {
-                return true;
-            }
-            if (nextSubtree.contains(node)) {
-                return true;
-            }
-            nextSubtree = nextSubtree.rightSiblingNode;
-        }
-        return false;
-    }
-
-    /**
-     * Removes the first occurrence of the specified node from the entire tree,
-     * starting from the current tree node and traversing in a pre order manner
-     * <p>
-     * Checks whether the current tree node was changed as a result of the call
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param node node to remove from the entire tree
-     * @return {@code true} if the current tree node was changed as a result of
-     * the call; {@code false} otherwise
-     */
-    @Override
-    public boolean remove(TreeNode<T> node) {
-        log.debug("Removing the node : {} from the node: {}", node, this);
-        if (node == null || isLeaf() || node.isRoot()) {
-            return false;
-        }
-        if (dropSubtree(node)) {
-            return true;
-        }
-        LeftChildTreeNode<T> nextSubtree = leftMostNode;
-        while (nextSubtree != null) {
-            if (nextSubtree.remove(node)) {
-                return true;
-            }
-            nextSubtree = nextSubtree.rightSiblingNode;
-        }
-        return false;
-    }
-
-    /**
-     * Traverses the tree in a pre ordered manner starting from the
-     * current tree node and performs the traversal action on each
-     * traversed tree node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param action action, which is to be performed on each tree
-     *               node, while traversing the tree
-     */
-    @Override
-    public void traversePreOrder(TraversalAction<TreeNode<T>> action) {
-        log.debug("Traversing the postOrder in the node : {} \n\n", this);
-        if (action.isIncomplete()) {
-            action.perform(this);
-            if (!isLeaf()) {
-                LeftChildTreeNode<T> nextNode = leftMostNode;
-                while (nextNode != null) {
-                    nextNode.traversePreOrder(action);
-                    nextNode = nextNode.rightSiblingNode;
-                }
-            }
-        }
-        log.debug("PostOrder traversal complete");
-    }
-
-    /**
-     * Traverses the tree in a post ordered manner starting from the
-     * current tree node and performs the traversal action on each
-     * traversed tree node
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @param action action, which is to be performed on each tree
-     *               node, while traversing the tree
-     */
-    @Override
-    public void traversePostOrder(TraversalAction<TreeNode<T>> action) {
-        log.debug("Traversing the postOrder in the node : {} \n\n", this);
-        if (action.isIncomplete()) {
-            if (!isLeaf()) {
-                LeftChildTreeNode<T> nextNode = leftMostNode;
-                while (nextNode != null) {
-                    nextNode.traversePostOrder(action);
-                    nextNode = nextNode.rightSiblingNode;
-                }
-            }
-            action.perform(this);
-        }
-        log.debug("PostOrder traversal complete");
-    }
-
-    /**
-     * Returns the height of the current tree node, e.g. the number of edges
-     * on the longest downward path between that node and a leaf
-     * <p>
-     * Overridden to have a faster array implementation
-     *
-     * @return height of the current tree node, e.g. the number of edges
-     * on the longest downward path between that node and a leaf
-     */
-    @Override
-    public int height() {
-        log.debug("Calculating height of the node : {}\n\n", this);
-        if (isLeaf()) {
-            log.trace("The node {} is leaf returning 0 \n\n", this);
-            return 0;
-        }
-        int height = 0;
-        LeftChildTreeNode<T> nextNode = leftMostNode;
-        while (nextNode != null) {
-            height = Math.max(height, nextNode.height());
-            nextNode = nextNode.rightSiblingNode;
-        }
-        log.debug("The height for the node: {} is {}\n\n", this, height + 1);
-        return height + 1;
+        return equals(subtree.parent());
     }
 
     /**
@@ -0,0 +1,104 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Implementation of the K-ary (multi node) tree data structure, based on
+ * the leftmost-child-right-sibling representation, which stores a primitive {@code long} value in each tree node
+ * without boxing it
+ */
+public class LongLeftChildTreeNode extends LeftChildTreeNode<Long> implements LongTreeNode {
+
+    /**
+     * Current class serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Value stored in the current tree node
+     */
+    private long data;
+
+    /**
+     * Constructs the {@link LongLeftChildTreeNode} instance
+     *
+     * @param data value to store in the current tree node
+     */
+    public LongLeftChildTreeNode(long data) {
+        super(null);
+        this.data = data;
+    }
+
+    @Override
+    public long longData() {
+        return data;
+    }
+
+    @Override
+    TreeNode<Long> createLike(Long data) {
+        return getClass() == LongLeftChildTreeNode.class ? new LongLeftChildTreeNode(data) : null;
+    }
+
+    @Override
+    boolean isLike(TreeNode<Long> node) {
+        return getClass() == LongLeftChildTreeNode.class && node.getClass() == LongLeftChildTreeNode.class;
+    }
+
+    /**
+     * Returns the boxed value stored in the current tree node
+     *
+     * @return boxed value stored in the current tree node
+     */
+    @Override
+    public Long data() {
+        return data;
+    }
+
+    /**
+     * Stores the value into the current tree node
+     *
+     * @param data value to store into the current tree node
+     * @throws NullPointerException if the value is {@code null}
+     */
+    @Override
+    public void setData(Long data) {
+        setData(data.longValue());
+    }
+
+    @Override
+    public void setData(long data) {
+        if (isDataIndexed()) {
+            beforeDataChange(data);
+        } else {
+            invalidateSubtreeHashes();
+        }
+        this.data = data;
+    }
+
+    @Override
+    public TreeNode<Long> find(long data) {
+        return PrimitiveTreeNodes.find(this, data);
+    }
+
+    @Override
+    public void traversePreOrder(LongConsumer action) {
+        PrimitiveTreeNodes.traversePreOrder(this, action);
+    }
+}
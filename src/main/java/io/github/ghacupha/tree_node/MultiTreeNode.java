@@ -63,7 +63,6 @@ public abstract class MultiTreeNode<T> extends TreeNode<T> {
         }
 
         for (MultiTreeNode<T> subtree : subtrees) {
-            linkParent(subtree, this);
             if (!add(subtree)) {
                 return false;
             }
@@ -0,0 +1,638 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Mutable store of the tree nodes, which keeps the tree structure outside
+ * of the Java heap
+ * <p>
+ * Each tree node is identified by an {@code int} number and is stored as a
+ * fixed size record of its parent, first subtree, last subtree, next sibling,
+ * previous sibling and level. The records are kept in the chunks of the
+ * {@link ByteBuffer}s, direct by default, so that only the data objects of
+ * the tree nodes remain on the heap. The numbers of the dropped tree nodes
+ * are reused by the tree nodes added later
+ * <p>
+ * The store may hold several trees. The tree nodes are accessed through their
+ * numbers or through the reusable {@link Cursor}s; {@link #toTreeNode(int)}
+ * copies a tree out of the store for use with the rest of the library.
+ * Methods accepting a tree node number throw {@link IllegalArgumentException}
+ * if there is no such tree node within the store. The store is not thread safe
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class OffHeapTreeStore<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapTreeStore.class);
+
+    /**
+     * Number returned in place of the missing tree node
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Offsets of the tree node record fields
+     */
+    private static final int PARENT = 0;
+    private static final int FIRST_CHILD = 4;
+    private static final int LAST_CHILD = 8;
+    private static final int NEXT_SIBLING = 12;
+    private static final int PREVIOUS_SIBLING = 16;
+    private static final int LEVEL = 20;
+
+    /**
+     * Number of bytes in the tree node record
+     */
+    private static final int RECORD_SIZE = 24;
+
+    /**
+     * Level of the dropped tree node, whose number is free for reuse
+     */
+    private static final int FREE = -1;
+
+    /**
+     * Number of the tree nodes in a chunk is {@code 2^CHUNK_SHIFT}
+     */
+    private static final int CHUNK_SHIFT = 16;
+
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /**
+     * Creates the buffer of at least the requested number of bytes for each chunk
+     */
+    private final IntFunction<ByteBuffer> allocator;
+
+    /**
+     * Chunks of the tree node records
+     */
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /**
+     * Chunks of the tree node data objects
+     */
+    private Object[][] dataChunks = new Object[0][];
+
+    /**
+     * Number of the tree node numbers ever assigned
+     */
+    private int assigned;
+
+    /**
+     * First of the free tree node numbers, chained through their next sibling fields
+     */
+    private int freeNode = NO_NODE;
+
+    /**
+     * Number of the tree nodes within the store
+     */
+    private int size;
+
+    /**
+     * Creates the store keeping the tree node records in the direct buffers
+     */
+    public OffHeapTreeStore() {
+        this(ByteBuffer::allocateDirect);
+    }
+
+    /**
+     * Creates the store keeping the tree node records in the buffers created
+     * by the specified allocator, e.g. the regions of a memory mapped file
+     *
+     * @param allocator function creating the buffer of at least the specified
+     *                  capacity in bytes
+     */
+    public OffHeapTreeStore(IntFunction<ByteBuffer> allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * Creates the root tree node of a new tree within the store
+     *
+     * @param data data to store in the tree node
+     * @return number of the created tree node
+     */
+    public int create(T data) {
+        return allocate(data, NO_NODE, 0);
+    }
+
+    /**
+     * Creates the tree node and adds it as the last subtree of the specified parent
+     *
+     * @param parent number of the parent tree node
+     * @param data   data to store in the tree node
+     * @return number of the created tree node
+     */
+    public int add(int parent, T data) {
+        int node = allocate(data, parent, level(parent) + 1);
+        link(parent, node);
+        return node;
+    }
+
+    /**
+     * Moves the specified tree node together with its descendants to become
+     * the last subtree of the new parent
+     *
+     * @param node      number of the tree node to move
+     * @param newParent number of the new parent tree node
+     * @throws TreeNodeException if the new parent is the tree node itself or
+     *                           one of its descendants
+     */
+    public void move(int node, int newParent) {
+        checkNode(node);
+        if (isAncestorOrSelf(node, newParent)) {
+            throw new TreeNodeException(String.format(
+                    "Unable to move the tree node %1$d under itself or its descendant %2$d", node, newParent));
+        }
+        unlink(node);
+        link(newParent, node);
+        int shift = get(newParent, LEVEL) + 1 - get(node, LEVEL);
+        if (shift != 0) {
+            traversePreOrder(node, mNode -> put(mNode, LEVEL, get(mNode, LEVEL) + shift));
+        }
+    }
+
+    /**
+     * Removes the specified tree node together with its descendants from
+     * the store
+     *
+     * @param node number of the tree node to drop
+     */
+    public void drop(int node) {
+        checkNode(node);
+        log.debug("Dropping the tree node {} from the off heap store", node);
+        unlink(node);
+        // the next node is found before the current one is freed, as freeing overwrites its sibling
+        int current = deepestFirst(node);
+        while (true) {
+            int next = NO_NODE;
+            if (current != node) {
+                int sibling = get(current, NEXT_SIBLING);
+                next = sibling == NO_NODE ? get(current, PARENT) : deepestFirst(sibling);
+            }
+            free(current);
+            if (current == node) {
+                return;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Returns the number of the tree nodes within the store
+     *
+     * @return number of the tree nodes within the store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the tree nodes in the subtree of the specified
+     * tree node, including that tree node itself
+     *
+     * @param node number of the tree node
+     * @return number of the tree nodes in the subtree of the tree node
+     */
+    public int size(int node) {
+        int[] size = new int[1];
+        traversePreOrder(node, mNode -> size[0]++);
+        return size[0];
+    }
+
+    /**
+     * Checks whether the store holds the specified tree node
+     *
+     * @param node number of the tree node
+     * @return {@code true} if the store holds the tree node; {@code false} otherwise
+     */
+    public boolean contains(int node) {
+        return node >= 0 && node < assigned && get(node, LEVEL) != FREE;
+    }
+
+    /**
+     * Returns the data stored in the specified tree node
+     *
+     * @param node number of the tree node
+     * @return data stored in the tree node
+     */
+    @SuppressWarnings("unchecked")
+    public T data(int node) {
+        checkNode(node);
+        return (T) dataChunks[node >>> CHUNK_SHIFT][node & CHUNK_MASK];
+    }
+
+    /**
+     * Stores the data into the specified tree node
+     *
+     * @param node number of the tree node
+     * @param data data to store in the tree node
+     */
+    public void setData(int node, T data) {
+        checkNode(node);
+        dataChunks[node >>> CHUNK_SHIFT][node & CHUNK_MASK] = data;
+    }
+
+    /**
+     * Returns the parent of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the parent; {@link #NO_NODE} for a root
+     */
+    public int parent(int node) {
+        return get(checkNode(node), PARENT);
+    }
+
+    /**
+     * Returns the first subtree of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the first subtree; {@link #NO_NODE} for a leaf
+     */
+    public int firstChild(int node) {
+        return get(checkNode(node), FIRST_CHILD);
+    }
+
+    /**
+     * Returns the subtree of the specified tree node parent, which follows
+     * that tree node
+     *
+     * @param node number of the tree node
+     * @return number of the next sibling; {@link #NO_NODE} if there is none
+     */
+    public int nextSibling(int node) {
+        return get(checkNode(node), NEXT_SIBLING);
+    }
+
+    /**
+     * Returns the level of the specified tree node, its root being at level {@code 0}
+     *
+     * @param node number of the tree node
+     * @return level of the tree node
+     */
+    public int level(int node) {
+        return get(checkNode(node), LEVEL);
+    }
+
+    /**
+     * Returns the number of the subtrees of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the subtrees of the tree node
+     */
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChild(node); child != NO_NODE; child = get(child, NEXT_SIBLING)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the specified tree node is a leaf
+     *
+     * @param node number of the tree node
+     * @return {@code true} if the tree node has no subtrees; {@code false} otherwise
+     */
+    public boolean isLeaf(int node) {
+        return firstChild(node) == NO_NODE;
+    }
+
+    /**
+     * Traverses the subtree of the specified tree node in a pre ordered manner
+     * and performs the action on the number of each tree node
+     * <p>
+     * The action must not change the structure of the store
+     *
+     * @param node   number of the tree node to start the traversal from
+     * @param action action to perform on each tree node number
+     */
+    public void traversePreOrder(int node, IntConsumer action) {
+        int current = checkNode(node);
+        while (current != NO_NODE) {
+            action.accept(current);
+            current = nextPreOrdered(node, current);
+        }
+    }
+
+    /**
+     * Traverses the subtree of the specified tree node in a post ordered manner
+     * and performs the action on the number of each tree node
+     * <p>
+     * The action must not change the structure of the store
+     *
+     * @param node   number of the tree node to start the traversal from
+     * @param action action to perform on each tree node number
+     */
+    public void traversePostOrder(int node, IntConsumer action) {
+        int current = deepestFirst(checkNode(node));
+        while (current != node) {
+            action.accept(current);
+            int sibling = get(current, NEXT_SIBLING);
+            current = sibling == NO_NODE ? get(current, PARENT) : deepestFirst(sibling);
+        }
+        action.accept(node);
+    }
+
+    /**
+     * Creates the cursor positioned at the specified tree node
+     *
+     * @param node number of the tree node
+     * @return cursor positioned at the tree node
+     */
+    public Cursor cursor(int node) {
+        return new Cursor(checkNode(node));
+    }
+
+    /**
+     * Copies the subtree of the specified tree node out of the store into the
+     * {@link ArrayTreeNode}s, each one sized to the exact number of its subtrees
+     *
+     * @param node number of the tree node
+     * @return root of the copy of the subtree
+     */
+    public TreeNode<T> toTreeNode(int node) {
+        List<TreeNode<T>> path = new ArrayList<>();
+        int rootLevel = level(node);
+        traversePreOrder(node, mNode -> {
+            TreeNode<T> treeNode = new ArrayTreeNode<>(data(mNode), childCount(mNode));
+            int level = get(mNode, LEVEL) - rootLevel;
+            while (path.size() > level) {
+                path.remove(path.size() - 1);
+            }
+            if (level > 0) {
+                path.get(level - 1).add(treeNode);
+            }
+            path.add(treeNode);
+        });
+        return path.get(0);
+    }
+
+    /**
+     * Returns the tree node following the specified one in a pre ordered
+     * manner within the subtree of the start tree node
+     */
+    private int nextPreOrdered(int start, int node) {
+        int child = get(node, FIRST_CHILD);
+        if (child != NO_NODE) {
+            return child;
+        }
+        while (node != start) {
+            int sibling = get(node, NEXT_SIBLING);
+            if (sibling != NO_NODE) {
+                return sibling;
+            }
+            node = get(node, PARENT);
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Returns the tree node reached by following the first subtrees
+     * starting from the specified tree node
+     */
+    private int deepestFirst(int node) {
+        for (int child = get(node, FIRST_CHILD); child != NO_NODE; child = get(node, FIRST_CHILD)) {
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Checks whether the first tree node is either the second one or its ancestor
+     */
+    private boolean isAncestorOrSelf(int node, int other) {
+        int level = get(node, LEVEL);
+        int current = checkNode(other);
+        for (int mLevel = get(current, LEVEL); mLevel > level; mLevel--) {
+            current = get(current, PARENT);
+        }
+        return current == node;
+    }
+
+    /**
+     * Links the tree node as the last subtree of the parent
+     */
+    private void link(int parent, int node) {
+        int last = get(parent, LAST_CHILD);
+        if (last == NO_NODE) {
+            put(parent, FIRST_CHILD, node);
+        } else {
+            put(last, NEXT_SIBLING, node);
+        }
+        put(node, PREVIOUS_SIBLING, last);
+        put(node, PARENT, parent);
+        put(parent, LAST_CHILD, node);
+    }
+
+    /**
+     * Unlinks the tree node from its parent, if any
+     */
+    private void unlink(int node) {
+        int parent = get(node, PARENT);
+        if (parent == NO_NODE) {
+            return;
+        }
+        int previous = get(node, PREVIOUS_SIBLING);
+        int next = get(node, NEXT_SIBLING);
+        if (previous == NO_NODE) {
+            put(parent, FIRST_CHILD, next);
+        } else {
+            put(previous, NEXT_SIBLING, next);
+        }
+        if (next == NO_NODE) {
+            put(parent, LAST_CHILD, previous);
+        } else {
+            put(next, PREVIOUS_SIBLING, previous);
+        }
+        put(node, PARENT, NO_NODE);
+        put(node, PREVIOUS_SIBLING, NO_NODE);
+        put(node, NEXT_SIBLING, NO_NODE);
+    }
+
+    /**
+     * Takes a free tree node number, or a new one, and fills its record
+     */
+    private int allocate(T data, int parent, int level) {
+        int node;
+        if (freeNode != NO_NODE) {
+            node = freeNode;
+            freeNode = get(node, NEXT_SIBLING);
+        } else {
+            if (assigned == Integer.MAX_VALUE) {
+                throw new IllegalStateException("The off heap tree store is full");
+            }
+            if (assigned == chunks.length << CHUNK_SHIFT) {
+                addChunk();
+            }
+            node = assigned++;
+        }
+        put(node, PARENT, parent);
+        put(node, FIRST_CHILD, NO_NODE);
+        put(node, LAST_CHILD, NO_NODE);
+        put(node, NEXT_SIBLING, NO_NODE);
+        put(node, PREVIOUS_SIBLING, NO_NODE);
+        put(node, LEVEL, level);
+        dataChunks[node >>> CHUNK_SHIFT][node & CHUNK_MASK] = data;
+        size++;
+        return node;
+    }
+
+    /**
+     * Marks the tree node number free and releases its data
+     */
+    private void free(int node) {
+        put(node, LEVEL, FREE);
+        put(node, NEXT_SIBLING, freeNode);
+        dataChunks[node >>> CHUNK_SHIFT][node & CHUNK_MASK] = null;
+        freeNode = node;
+        size--;
+    }
+
+    /**
+     * Adds the chunk of the tree node records
+     */
+    private void addChunk() {
+        int capacity = RECORD_SIZE << CHUNK_SHIFT;
+        ByteBuffer chunk = allocator.apply(capacity);
+        if (chunk.capacity() < capacity) {
+            throw new IllegalStateException("The allocated buffer is smaller than " + capacity + " bytes");
+        }
+        log.debug("Adding the chunk {} to the off heap tree store", chunks.length);
+        chunks = Arrays.copyOf(chunks, chunks.length + 1);
+        chunks[chunks.length - 1] = chunk.order(ByteOrder.nativeOrder());
+        dataChunks = Arrays.copyOf(dataChunks, dataChunks.length + 1);
+        dataChunks[dataChunks.length - 1] = new Object[1 << CHUNK_SHIFT];
+    }
+
+    private int get(int node, int field) {
+        return chunks[node >>> CHUNK_SHIFT].getInt((node & CHUNK_MASK) * RECORD_SIZE + field);
+    }
+
+    private void put(int node, int field, int value) {
+        chunks[node >>> CHUNK_SHIFT].putInt((node & CHUNK_MASK) * RECORD_SIZE + field, value);
+    }
+
+    /**
+     * Checks the store holds the specified tree node
+     */
+    private int checkNode(int node) {
+        if (!contains(node)) {
+            throw new IllegalArgumentException("Tree node " + node + " is not within the off heap tree store");
+        }
+        return node;
+    }
+
+    /**
+     * Reusable pointer to a tree node within the store, which moves between
+     * the tree nodes without creating any objects
+     */
+    public final class Cursor {
+
+        /**
+         * Number of the tree node the cursor points to
+         */
+        private int node;
+
+        private Cursor(int node) {
+            this.node = node;
+        }
+
+        /**
+         * Returns the number of the tree node the cursor points to
+         *
+         * @return number of the tree node the cursor points to
+         */
+        public int node() {
+            return node;
+        }
+
+        /**
+         * Returns the data stored in the tree node the cursor points to
+         *
+         * @return data stored in the tree node the cursor points to
+         */
+        public T data() {
+            return OffHeapTreeStore.this.data(node);
+        }
+
+        /**
+         * Returns the level of the tree node the cursor points to
+         *
+         * @return level of the tree node the cursor points to
+         */
+        public int level() {
+            return OffHeapTreeStore.this.level(node);
+        }
+
+        /**
+         * Moves the cursor to the specified tree node
+         *
+         * @param node number of the tree node
+         */
+        public void moveTo(int node) {
+            this.node = checkNode(node);
+        }
+
+        /**
+         * Moves the cursor to the parent of the current tree node, if any
+         *
+         * @return {@code true} if the cursor has been moved; {@code false} otherwise
+         */
+        public boolean toParent() {
+            return moveToExisting(parent(node));
+        }
+
+        /**
+         * Moves the cursor to the first subtree of the current tree node, if any
+         *
+         * @return {@code true} if the cursor has been moved; {@code false} otherwise
+         */
+        public boolean toFirstChild() {
+            return moveToExisting(firstChild(node));
+        }
+
+        /**
+         * Moves the cursor to the next sibling of the current tree node, if any
+         *
+         * @return {@code true} if the cursor has been moved; {@code false} otherwise
+         */
+        public boolean toNextSibling() {
+            return moveToExisting(nextSibling(node));
+        }
+
+        private boolean moveToExisting(int node) {
+            if (node == NO_NODE) {
+                return false;
+            }
+            this.node = node;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streaming builder of a tree from an outline, e.g. the sequence of the data
+ * objects of the tree nodes in a pre ordered manner, each one with its depth
+ * <p>
+ * The outline is added under the root tree node specified, the outline items
+ * of depth {@code 0} becoming its subtrees. The builder keeps the stack of the
+ * tree nodes along the last added item only, so that besides the built tree
+ * it keeps the memory proportional to the depth of the tree
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class OutlineTreeBuilder<T> {
+
+    private final Function<? super T, ? extends TreeNode<T>> factory;
+
+    /**
+     * Tree nodes along the last added item, starting with the root
+     */
+    private final List<TreeNode<T>> path = new ArrayList<>();
+
+    /**
+     * Creates the builder adding the outline under the root specified
+     *
+     * @param root    tree node to add the outline under
+     * @param factory function creating the tree node for an outline item,
+     *                e.g. {@code ArrayTreeNode::new} or {@code LeftChildTreeNode::new}
+     */
+    public OutlineTreeBuilder(TreeNode<T> root, Function<? super T, ? extends TreeNode<T>> factory) {
+        this.factory = factory;
+        path.add(root);
+    }
+
+    /**
+     * Adds the outline item as the last subtree of the last added item with
+     * the depth one less than the one specified
+     *
+     * @param depth depth of the item, {@code 0} for the subtrees of the root
+     * @param data  data of the item
+     * @return tree node created for the item
+     * @throws TreeNodeException if the depth is negative or exceeds the depth
+     *                           of the last added item by more than one
+     */
+    public TreeNode<T> add(int depth, T data) {
+        if (depth < 0 || depth >= path.size()) {
+            throw new TreeNodeException(String.format(
+                    "Unable to add the outline item %1$s of the depth %2$d after the item of the depth %3$d",
+                    data, depth, path.size() - 2));
+        }
+        for (int i = path.size() - 1; i > depth; i--) {
+            path.remove(i);
+        }
+        TreeNode<T> node = factory.apply(data);
+        path.get(depth).add(node);
+        path.add(node);
+        return node;
+    }
+
+    /**
+     * Adds all of the outline items, each one being the depth paired with the data
+     *
+     * @param items outline items to add
+     * @return root of the built tree
+     */
+    public TreeNode<T> addAll(Iterator<? extends Map.Entry<Integer, ? extends T>> items) {
+        while (items.hasNext()) {
+            Map.Entry<Integer, ? extends T> item = items.next();
+            add(item.getKey(), item.getValue());
+        }
+        return root();
+    }
+
+    /**
+     * Adds all of the outline items read from the indented text, one item per
+     * line; the depth of an item is the number of its leading tabs, or its
+     * leading spaces divided by the indent width, and its data is parsed from
+     * the rest of the line. The blank lines are skipped
+     *
+     * @param reader      reader of the indented text
+     * @param indentWidth number of the spaces per one level of depth
+     * @param parser      function parsing the data of the item
+     * @return root of the built tree
+     * @throws IOException if an I/O error occurs
+     */
+    public TreeNode<T> read(Reader reader, int indentWidth, Function<String, ? extends T> parser) throws IOException {
+        if (indentWidth <= 0) {
+            throw new IllegalArgumentException("The indent width is to be positive");
+        }
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            int spaces = 0;
+            int tabs = 0;
+            int start = 0;
+            for (; start < line.length(); start++) {
+                char c = line.charAt(start);
+                if (c == '\t') {
+                    tabs++;
+                } else if (c == ' ') {
+                    spaces++;
+                } else {
+                    break;
+                }
+            }
+            if (start < line.length()) {
+                add(tabs + spaces / indentWidth, parser.apply(line.substring(start).trim()));
+            }
+        }
+        return root();
+    }
+
+    /**
+     * Returns the root of the built tree
+     *
+     * @return root of the built tree
+     */
+    public TreeNode<T> root() {
+        return path.get(0);
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compiled path expression, which selects the tree nodes by the data along
+ * the path leading to them from the starting tree node, for example
+ * <code>Assets/*&#47;Cash</code> or <code>**&#47;Receivables/*</code>
+ * <p>
+ * The expression is made of the segments separated by {@code /}, each one
+ * matching a single tree node on the path below the starting tree node:
+ * <ul>
+ * <li>{@code *} matches any tree node;</li>
+ * <li>{@code **} matches any number of tree nodes, including none;</li>
+ * <li>any other segment matches the tree nodes, whose data is named exactly
+ * like the segment.</li>
+ * </ul>
+ * The empty segments, such as the one before a leading separator, are
+ * skipped, so the empty expression selects the starting tree node itself
+ * <p>
+ * The expression is compiled once into a nondeterministic automaton, whose
+ * states are the positions between the segments, kept as the bits of a
+ * {@code long}. The automaton is run in a single pre ordered traversal, which
+ * steps all of the active states at once for each tree node, and the subtree
+ * of a tree node is not visited at all, when no state but the accepting one
+ * remains active. The compiled expression keeps no state of its own, so it
+ * may be shared by any number of lookups and threads
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class PathExpression<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(PathExpression.class);
+
+    private static final String SEPARATOR = "/";
+
+    private static final String ANY_NODE = "*";
+
+    private static final String ANY_PATH = "**";
+
+    /**
+     * Maximum number of the segments, so that each state, including the
+     * accepting one, has its bit in a {@code long}
+     */
+    private static final int MAX_SEGMENTS = Long.SIZE - 1;
+
+    private final String expression;
+
+    private final Function<? super T, String> naming;
+
+    /**
+     * States, which advance on the tree nodes named like the key
+     */
+    private final Map<String, Long> namedStates;
+
+    /**
+     * States, which advance on any tree node
+     */
+    private final long anyNodeStates;
+
+    /**
+     * States, which stay active on any tree node
+     */
+    private final long anyPathStates;
+
+    /**
+     * States, which are reached from each state without consuming a tree node
+     */
+    private final long[] closures;
+
+    private final long acceptingState;
+
+    private final long initialStates;
+
+    private PathExpression(String expression, Function<? super T, String> naming) {
+        this.expression = expression;
+        this.naming = naming;
+        List<String> segments = new ArrayList<>();
+        for (String segment : expression.split(SEPARATOR)) {
+            // consecutive "**" match the same paths as a single one
+            if (!segment.isEmpty() && !(ANY_PATH.equals(segment) && !segments.isEmpty()
+                    && ANY_PATH.equals(segments.get(segments.size() - 1)))) {
+                segments.add(segment);
+            }
+        }
+        int size = segments.size();
+        if (size > MAX_SEGMENTS) {
+            throw new IllegalArgumentException(String.format(
+                    "The path expression %1$s has more than %2$d segments", expression, MAX_SEGMENTS));
+        }
+        Map<String, Long> named = new HashMap<>();
+        long anyNode = 0;
+        long anyPath = 0;
+        for (int i = 0; i < size; i++) {
+            String segment = segments.get(i);
+            long state = 1L << i;
+            if (ANY_PATH.equals(segment)) {
+                anyPath |= state;
+            } else if (ANY_NODE.equals(segment)) {
+                anyNode |= state;
+            } else {
+                named.merge(segment, state, (states, other) -> states | other);
+            }
+        }
+        this.namedStates = named;
+        this.anyNodeStates = anyNode;
+        this.anyPathStates = anyPath;
+        this.acceptingState = 1L << size;
+        this.closures = new long[size + 1];
+        closures[size] = acceptingState;
+        for (int i = size - 1; i >= 0; i--) {
+            long state = 1L << i;
+            closures[i] = (anyPath & state) == 0 ? state : state | closures[i + 1];
+        }
+        this.initialStates = closures[0];
+    }
+
+    /**
+     * Compiles the path expression, which matches the segments against the
+     * string representations of the data of the tree nodes
+     *
+     * @param expression path expression to compile
+     * @param <T>        type of the data stored in the tree nodes
+     * @return compiled path expression
+     * @throws IllegalArgumentException if the expression has more than 63 segments
+     */
+    public static <T> PathExpression<T> compile(String expression) {
+        return compile(expression, String::valueOf);
+    }
+
+    /**
+     * Compiles the path expression, which matches the segments against the
+     * names of the data of the tree nodes
+     *
+     * @param expression path expression to compile
+     * @param naming     function, which returns the name of the data of a
+     *                   tree node
+     * @param <T>        type of the data stored in the tree nodes
+     * @return compiled path expression
+     * @throws IllegalArgumentException if the expression has more than 63 segments
+     */
+    public static <T> PathExpression<T> compile(String expression, Function<? super T, String> naming) {
+        log.debug("Compiling the path expression : {}\n\n", expression);
+        return new PathExpression<>(expression, naming);
+    }
+
+    /**
+     * Selects the tree nodes matching the expression under the tree node
+     * specified
+     *
+     * @param start tree node to evaluate the expression from
+     * @return list of the matching tree nodes in a pre ordered manner
+     */
+    public List<TreeNode<T>> select(TreeNode<T> start) {
+        List<TreeNode<T>> results = new ArrayList<>();
+        evaluate(start, results, Integer.MAX_VALUE);
+        return results;
+    }
+
+    /**
+     * Selects the first tree node in a pre ordered manner matching the
+     * expression under the tree node specified, which stops the traversal
+     * at the first match
+     *
+     * @param start tree node to evaluate the expression from
+     * @return first matching tree node; {@code null} if there is none
+     */
+    public TreeNode<T> selectFirst(TreeNode<T> start) {
+        List<TreeNode<T>> results = new ArrayList<>(1);
+        evaluate(start, results, 1);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Runs the automaton over the tree in a pre ordered manner, keeping the
+     * active states of each tree node on the path from the starting one
+     *
+     * @param start   tree node to evaluate the expression from
+     * @param results list to collect the matching tree nodes into
+     * @param limit   number of the matching tree nodes to stop at
+     */
+    private void evaluate(TreeNode<T> start, List<TreeNode<T>> results, int limit) {
+        long[] states = new long[16];
+        states[0] = initialStates;
+        if ((initialStates & acceptingState) != 0) {
+            results.add(start);
+            if (results.size() >= limit) {
+                return;
+            }
+        }
+        TreeNode<T> node = start;
+        int depth = 0;
+        while (true) {
+            // a tree node, which has no states other than the accepting one, has no matching descendants
+            TreeNode<T> next = (states[depth] & ~acceptingState) != 0 ? node.firstChild() : null;
+            if (next != null) {
+                depth++;
+            } else {
+                while (node != start && (next = node.nextSibling()) == null) {
+                    node = node.parent();
+                    depth--;
+                }
+                if (next == null) {
+                    return;
+                }
+            }
+            node = next;
+            if (depth == states.length) {
+                states = Arrays.copyOf(states, depth << 1);
+            }
+            long nodeStates = step(states[depth - 1], node.data());
+            states[depth] = nodeStates;
+            if ((nodeStates & acceptingState) != 0) {
+                results.add(node);
+                if (results.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the states, which are active after the tree node with the
+     * data specified is consumed in the states specified
+     *
+     * @param states active states
+     * @param data   data of the consumed tree node
+     * @return states active after the tree node is consumed
+     */
+    private long step(long states, T data) {
+        long advancing = states & anyNodeStates;
+        if (!namedStates.isEmpty()) {
+            Long named = namedStates.get(naming.apply(data));
+            if (named != null) {
+                advancing |= states & named;
+            }
+        }
+        long next = 0;
+        for (long reached = (states & anyPathStates) | advancing << 1; reached != 0; reached &= reached - 1) {
+            next |= closures[Long.numberOfTrailingZeros(reached)];
+        }
+        return next;
+    }
+
+    /**
+     * Returns the source of the path expression
+     *
+     * @return source of the path expression
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
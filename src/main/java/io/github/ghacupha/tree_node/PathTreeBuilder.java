@@ -0,0 +1,188 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streaming builder of a tree from the materialized paths, e.g. the strings
+ * like {@code Assets/Current/Cash}, each segment of which is the data of a
+ * tree node
+ * <p>
+ * The paths are added one by one under the root tree node specified. The
+ * builder keeps the stack of the tree nodes along the last added path, so
+ * that a path sharing a prefix with the previous one only descends from where
+ * they diverge, and the lookup of the subtrees by their data of each tree node
+ * descended through, so that each segment is found in constant time whatever
+ * the order of the paths. Besides the built tree, the builder keeps the memory
+ * proportional to the number of its inner tree nodes
+ * <p>
+ * The empty segments, such as the one before a leading separator, are skipped
+ */
+public final class PathTreeBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(PathTreeBuilder.class);
+
+    private final Function<String, ? extends TreeNode<String>> factory;
+
+    private final String separator;
+
+    /**
+     * Tree nodes along the last added path, starting with the root
+     */
+    private final List<TreeNode<String>> path = new ArrayList<>();
+
+    /**
+     * Lookups of the subtrees of the tree nodes by their data, created once
+     * a tree node is descended through and kept for the lifetime of the builder
+     */
+    private final Map<TreeNode<String>, Map<String, TreeNode<String>>> subtrees = new IdentityHashMap<>();
+
+    /**
+     * Creates the builder adding the paths under the root specified
+     *
+     * @param root      tree node to add the paths under
+     * @param separator separator of the path segments
+     * @param factory   function creating the tree node for a path segment,
+     *                  e.g. {@code ArrayTreeNode::new} or {@code LeftChildTreeNode::new}
+     */
+    public PathTreeBuilder(TreeNode<String> root, String separator, Function<String, ? extends TreeNode<String>> factory) {
+        if (separator.isEmpty()) {
+            throw new IllegalArgumentException("The path separator is empty");
+        }
+        this.factory = factory;
+        this.separator = separator;
+        path.add(root);
+    }
+
+    /**
+     * Adds the tree nodes of the path, which are not in the tree yet
+     *
+     * @param path path to add
+     * @return tree node of the last segment of the path; the root if the path
+     *         has no segments
+     */
+    public TreeNode<String> add(String path) {
+        int level = 0;
+        int from = 0;
+        while (from <= path.length()) {
+            int to = path.indexOf(separator, from);
+            if (to < 0) {
+                to = path.length();
+            }
+            if (to > from) {
+                descend(level++, path.substring(from, to));
+            }
+            from = to + separator.length();
+        }
+        truncate(level + 1);
+        return this.path.get(level);
+    }
+
+    /**
+     * Adds all of the paths
+     *
+     * @param paths paths to add
+     * @return root of the built tree
+     */
+    public TreeNode<String> addAll(Iterator<String> paths) {
+        while (paths.hasNext()) {
+            add(paths.next());
+        }
+        return root();
+    }
+
+    /**
+     * Adds all of the paths read from the reader, one path per line; the
+     * blank lines are skipped
+     *
+     * @param reader reader of the paths
+     * @return root of the built tree
+     * @throws IOException if an I/O error occurs
+     */
+    public TreeNode<String> read(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            if (!line.trim().isEmpty()) {
+                add(line);
+            }
+        }
+        return root();
+    }
+
+    /**
+     * Returns the root of the built tree
+     *
+     * @return root of the built tree
+     */
+    public TreeNode<String> root() {
+        return path.get(0);
+    }
+
+    /**
+     * Makes the tree node with the specified segment as data the subtree of
+     * the tree node at the specified level of the path, unless the path
+     * already continues with it
+     */
+    private void descend(int level, String segment) {
+        if (level + 1 < path.size()) {
+            if (segment.equals(path.get(level + 1).data())) {
+                return;
+            }
+            truncate(level + 1);
+        }
+        TreeNode<String> parent = path.get(level);
+        Map<String, TreeNode<String>> parentSubtrees = subtrees.get(parent);
+        if (parentSubtrees == null) {
+            parentSubtrees = new HashMap<>();
+            for (TreeNode<String> subtree : parent.subtreesView()) {
+                parentSubtrees.putIfAbsent(subtree.data(), subtree);
+            }
+            subtrees.put(parent, parentSubtrees);
+        }
+        TreeNode<String> node = parentSubtrees.get(segment);
+        if (node == null) {
+            log.debug("Adding the path segment {} at the level {}", segment, level + 1);
+            node = factory.apply(segment);
+            parent.add(node);
+            parentSubtrees.put(segment, node);
+        }
+        path.add(node);
+    }
+
+    /**
+     * Leaves the specified number of the tree nodes in the path
+     */
+    private void truncate(int size) {
+        for (int i = path.size() - 1; i >= size; i--) {
+            path.remove(i);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Searches and traversals shared by the tree nodes storing primitive values
+ * <p>
+ * The values of the primitive tree nodes are read and compared without boxing;
+ * only the tree nodes of other kinds within the same tree are read through
+ * their boxed data. The searches use the index of the tree nodes by their data,
+ * if the tree has one, which boxes the searched value once
+ */
+final class PrimitiveTreeNodes {
+
+    private PrimitiveTreeNodes() {
+    }
+
+    /**
+     * Returns the first tree node in a pre ordered manner, starting from
+     * the tree node specified, which holds the value specified
+     *
+     * @param start tree node to start the search from
+     * @param data  value to find the tree node with
+     * @return first tree node holding the value; {@code null} if there is none
+     */
+    static TreeNode<Long> find(TreeNode<Long> start, long data) {
+        if (start.isDataIndexed()) {
+            return start.find(Long.valueOf(data));
+        }
+        if (matches(start, data)) {
+            return start;
+        }
+        return TreeTraversal.findDescendant(start, node -> matches(node, data));
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the tree
+     * node specified and passes the value of each tree node to the action
+     *
+     * @param start  tree node to start the traversal from
+     * @param action action, which is to be performed on each value
+     */
+    static void traversePreOrder(TreeNode<Long> start, LongConsumer action) {
+        TreeNode<Long> node = start;
+        while (node != null) {
+            action.accept(longData(node));
+            node = TreeTraversal.nextPreOrdered(start, node, true);
+        }
+    }
+
+    /**
+     * Checks whether the tree node holds the value specified
+     */
+    private static boolean matches(TreeNode<Long> node, long data) {
+        if (!(node instanceof LongTreeNode) && node.data() == null) {
+            return false;
+        }
+        return longData(node) == data;
+    }
+
+    /**
+     * Returns the value of the tree node, unboxing it for the tree nodes of other kinds
+     */
+    private static long longData(TreeNode<Long> node) {
+        return node instanceof LongTreeNode ? ((LongTreeNode) node).longData() : node.data();
+    }
+
+    /**
+     * Returns the first tree node in a pre ordered manner, starting from
+     * the tree node specified, which holds the value specified
+     *
+     * @param start tree node to start the search from
+     * @param data  value to find the tree node with
+     * @return first tree node holding the value; {@code null} if there is none
+     */
+    static TreeNode<Integer> find(TreeNode<Integer> start, int data) {
+        if (start.isDataIndexed()) {
+            return start.find(Integer.valueOf(data));
+        }
+        if (matches(start, data)) {
+            return start;
+        }
+        return TreeTraversal.findDescendant(start, node -> matches(node, data));
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the tree
+     * node specified and passes the value of each tree node to the action
+     *
+     * @param start  tree node to start the traversal from
+     * @param action action, which is to be performed on each value
+     */
+    static void traversePreOrder(TreeNode<Integer> start, IntConsumer action) {
+        TreeNode<Integer> node = start;
+        while (node != null) {
+            action.accept(intData(node));
+            node = TreeTraversal.nextPreOrdered(start, node, true);
+        }
+    }
+
+    /**
+     * Checks whether the tree node holds the value specified
+     */
+    private static boolean matches(TreeNode<Integer> node, int data) {
+        if (!(node instanceof IntTreeNode) && node.data() == null) {
+            return false;
+        }
+        return intData(node) == data;
+    }
+
+    /**
+     * Returns the value of the tree node, unboxing it for the tree nodes of other kinds
+     */
+    private static int intData(TreeNode<Integer> node) {
+        return node instanceof IntTreeNode ? ((IntTreeNode) node).intData() : node.data();
+    }
+
+    /**
+     * Returns the first tree node in a pre ordered manner, starting from
+     * the tree node specified, which holds the value specified
+     *
+     * @param start tree node to start the search from
+     * @param data  value to find the tree node with
+     * @return first tree node holding the value; {@code null} if there is none
+     */
+    static TreeNode<Double> find(TreeNode<Double> start, double data) {
+        if (start.isDataIndexed()) {
+            return start.find(Double.valueOf(data));
+        }
+        if (matches(start, data)) {
+            return start;
+        }
+        return TreeTraversal.findDescendant(start, node -> matches(node, data));
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the tree
+     * node specified and passes the value of each tree node to the action
+     *
+     * @param start  tree node to start the traversal from
+     * @param action action, which is to be performed on each value
+     */
+    static void traversePreOrder(TreeNode<Double> start, DoubleConsumer action) {
+        TreeNode<Double> node = start;
+        while (node != null) {
+            action.accept(doubleData(node));
+            node = TreeTraversal.nextPreOrdered(start, node, true);
+        }
+    }
+
+    /**
+     * Checks whether the tree node holds the value specified; the values are compared the way {@link Double#equals(Object)} does
+     */
+    private static boolean matches(TreeNode<Double> node, double data) {
+        if (!(node instanceof DoubleTreeNode) && node.data() == null) {
+            return false;
+        }
+        return Double.doubleToLongBits(doubleData(node)) == Double.doubleToLongBits(data);
+    }
+
+    /**
+     * Returns the value of the tree node, unboxing it for the tree nodes of other kinds
+     */
+    private static double doubleData(TreeNode<Double> node) {
+        return node instanceof DoubleTreeNode ? ((DoubleTreeNode) node).doubleData() : node.data();
+    }
+}
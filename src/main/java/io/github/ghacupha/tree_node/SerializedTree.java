@@ -0,0 +1,241 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Serialized form of a tree, which replaces each written {@link TreeNode}
+ * <p>
+ * The root of the tree is written first, followed by the number of the
+ * replaced tree node within the tree in a pre ordered manner. Unless the
+ * root has been written to the stream before, the rest of the tree nodes
+ * follow in a pre ordered manner, each one preceded by the number of its
+ * subtrees, so that neither the writing nor the reading recurses through the
+ * tree. A tree node, which is like the last tree node written whole, see
+ * {@link TreeNode#isLike(TreeNode)}, is written as its data only, so that it
+ * takes neither the class nor the object handle of its own. The other tree
+ * nodes are written whole, without the references to their parents and
+ * subtrees. The same tree node is returned when the tree is read back
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+final class SerializedTree<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tree node, which is being written by the serialized form of its tree,
+     * so that it is to be written as is rather than replaced
+     */
+    private static final ThreadLocal<TreeNode<?>> WRITTEN_NODE = new ThreadLocal<>();
+
+    /**
+     * Number of subtrees written after the last tree node of the tree
+     */
+    private static final int END_OF_TREE = -1;
+
+    /**
+     * Marker of the tree node written as its data only
+     */
+    private static final byte DATA_ONLY = 0;
+
+    /**
+     * Marker of the tree node written whole
+     */
+    private static final byte WHOLE_NODE = 1;
+
+    /**
+     * Tree node the serialized form replaces
+     */
+    private transient TreeNode<T> node;
+
+    private SerializedTree(TreeNode<T> node) {
+        this.node = node;
+    }
+
+    /**
+     * Returns the object to write in place of the specified tree node
+     *
+     * @param node tree node being written
+     * @param <T>  type of the data stored in the tree nodes
+     * @return the tree node itself if it is written by the serialized form
+     *         of its tree; the serialized form of its tree otherwise
+     */
+    static <T> Object replace(TreeNode<T> node) {
+        if (WRITTEN_NODE.get() == node) {
+            WRITTEN_NODE.remove();
+            return node;
+        }
+        return new SerializedTree<>(node);
+    }
+
+    /**
+     * Writes the tree node whole rather than replacing it
+     *
+     * @return {@code true} if the tree node has been written; {@code false}
+     *         if the stream has written the reference to it written before
+     */
+    private static <T> boolean writeWhole(ObjectOutputStream out, TreeNode<T> node) throws IOException {
+        WRITTEN_NODE.set(node);
+        try {
+            out.writeObject(node);
+            // the stream replaces only the tree nodes it has not written yet
+            return WRITTEN_NODE.get() == null;
+        } finally {
+            WRITTEN_NODE.remove();
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        TreeNode<T> root = node.root();
+        int number = 0;
+        TreeNode<T> current = root;
+        while (current != node) {
+            current = TreeTraversal.nextPreOrdered(root, current, true);
+            number++;
+        }
+        // the replaced tree node is already mapped to this serialized form by the stream, so its copy is written
+        boolean treeFollows = writeWhole(out, root == node ? root.clone() : root);
+        out.writeInt(number);
+        out.writeBoolean(treeFollows);
+        if (!treeFollows) {
+            return;
+        }
+        out.writeBoolean(root.isSizeAndHeightCached());
+        out.writeBoolean(root.isDataIndexed());
+        out.writeBoolean(root.isIntervalIndexed());
+        out.writeBoolean(root.isSubtreeHashed());
+        out.writeInt(root.childCount());
+        TreeNode<T> template = root;
+        current = TreeTraversal.nextPreOrdered(root, root, true);
+        while (current != null) {
+            out.writeInt(current.childCount());
+            if (template.isLike(current)) {
+                out.writeByte(DATA_ONLY);
+                out.writeObject(current.data());
+            } else {
+                out.writeByte(WHOLE_NODE);
+                writeWhole(out, current == node ? current.clone() : current);
+                template = current;
+            }
+            current = TreeTraversal.nextPreOrdered(root, current, true);
+        }
+        out.writeInt(END_OF_TREE);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        TreeNode<T> root = readNode(in);
+        int number = in.readInt();
+        if (!in.readBoolean()) {
+            // the tree has been read along with the tree node written before
+            node = root;
+            for (; number > 0 && node != null; number--) {
+                node = TreeTraversal.nextPreOrdered(root, node, true);
+            }
+            if (node == null || !node.isRoot() && root != node.root()) {
+                throw new InvalidObjectException("The serialized tree node is not within its tree");
+            }
+            return;
+        }
+        boolean sizeAndHeightCached = in.readBoolean();
+        boolean dataIndexed = in.readBoolean();
+        boolean intervalIndexed = in.readBoolean();
+        boolean subtreeHashed = in.readBoolean();
+        // the tree nodes still expecting subtrees, together with the numbers of the expected subtrees
+        TreeNode<T>[] parents = (TreeNode<T>[]) new TreeNode[16];
+        int[] expectedSubtrees = new int[16];
+        int top = -1;
+        TreeNode<T> template = root;
+        TreeNode<T> current = root;
+        for (int subtrees = in.readInt(); subtrees != END_OF_TREE; subtrees = in.readInt(), number--) {
+            if (current == null) {
+                byte form = in.readByte();
+                if (form == DATA_ONLY) {
+                    current = template.createLike((T) in.readObject());
+                    if (current == null) {
+                        throw new InvalidObjectException("The serialized tree node can not be created from its data");
+                    }
+                } else if (form == WHOLE_NODE) {
+                    current = readNode(in);
+                    template = current;
+                } else {
+                    throw new InvalidObjectException("Unknown form of the serialized tree node " + form);
+                }
+                if (top < 0) {
+                    throw new InvalidObjectException("The serialized tree has more than one root");
+                }
+                parents[top].add(current);
+                if (--expectedSubtrees[top] == 0) {
+                    parents[top--] = null;
+                }
+            }
+            if (subtrees > 0) {
+                if (++top == parents.length) {
+                    parents = Arrays.copyOf(parents, top << 1);
+                    expectedSubtrees = Arrays.copyOf(expectedSubtrees, top << 1);
+                }
+                parents[top] = current;
+                expectedSubtrees[top] = subtrees;
+            }
+            if (number == 0) {
+                node = current;
+            }
+            current = null;
+        }
+        if (node == null || top >= 0) {
+            throw new InvalidObjectException("The serialized tree is incomplete");
+        }
+        if (sizeAndHeightCached) {
+            root.enableSizeAndHeightCache();
+        }
+        if (dataIndexed) {
+            root.enableDataIndex();
+        }
+        if (intervalIndexed) {
+            root.enableIntervalIndex();
+        }
+        if (subtreeHashed) {
+            root.enableSubtreeHash();
+        }
+    }
+
+    /**
+     * Reads the tree node written whole
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TreeNode<T> readNode(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Object node = in.readObject();
+        if (!(node instanceof TreeNode)) {
+            throw new InvalidObjectException("The serialized tree node is not a tree node");
+        }
+        return (TreeNode<T>) node;
+    }
+
+    private Object readResolve() {
+        return node;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+/**
+ * Instructs a traversal how to proceed after a {@link TreeVisitor} has
+ * been called on a tree node
+ */
+public enum TraversalControl {
+
+    /**
+     * Proceeds with the traversal as usual
+     */
+    CONTINUE,
+
+    /**
+     * Proceeds with the traversal, but leaves out the descendants of the
+     * tree node the visitor has just been called on
+     */
+    SKIP_SUBTREE,
+
+    /**
+     * Stops the traversal immediately, no more tree nodes are visited
+     */
+    TERMINATE
+
+}
@@ -0,0 +1,198 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Builder of a tree of the {@link ArrayTreeNode}s from the records of the
+ * tree nodes, each one made of the identifier of the tree node, the identifier
+ * of its parent and the data to store in the tree node
+ * <p>
+ * The records may be added in any order. The tree is built in time linear to
+ * the number of the records: the subtrees are grouped by their parents first,
+ * then each tree node is created with the subtrees array of the exact size and
+ * the subtrees are linked without the checks {@link TreeNode#add(TreeNode)}
+ * performs on each call. The subtrees of each tree node keep the order their
+ * records were added in
+ * <p>
+ * Very large trees may be built in parallel on the common fork join pool,
+ * see {@link #parallel(boolean)}
+ *
+ * @param <K> type of the identifiers of the tree nodes
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class TreeBuilder<K, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeBuilder.class);
+
+    private final List<K> ids = new ArrayList<>();
+
+    private final List<K> parentIds = new ArrayList<>();
+
+    private final List<T> data = new ArrayList<>();
+
+    private boolean parallel;
+
+    /**
+     * Adds the record of a tree node
+     *
+     * @param id       identifier of the tree node
+     * @param parentId identifier of the parent tree node; {@code null} for the root
+     * @param data     data to store in the tree node
+     * @return the current builder
+     * @throws NullPointerException if the identifier of the tree node is {@code null}
+     */
+    public TreeBuilder<K, T> add(K id, K parentId, T data) {
+        if (id == null) {
+            throw new NullPointerException("The identifier of the tree node is null");
+        }
+        ids.add(id);
+        parentIds.add(parentId);
+        this.data.add(data);
+        return this;
+    }
+
+    /**
+     * Sets whether the tree nodes are to be created and linked in parallel
+     * on the common fork join pool, which pays off for the very large trees only
+     *
+     * @param parallel {@code true} to build the tree in parallel; {@code false}
+     *                 to build it on the calling thread, which is the default
+     * @return the current builder
+     */
+    public TreeBuilder<K, T> parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Builds the tree from the records added
+     *
+     * @return root of the built tree
+     * @throws TreeNodeException if there are no records, if several records
+     *                           have the same identifier, if a parent of a
+     *                           record is not found (an orphan), if there is
+     *                           not exactly one root or if some records form a
+     *                           cycle of parents
+     */
+    public TreeNode<T> build() {
+        int size = ids.size();
+        log.debug("Building the tree of {} tree nodes", size);
+        if (size == 0) {
+            throw new TreeNodeException("Unable to build the tree: there are no tree nodes");
+        }
+        Map<K, Integer> numbers = new HashMap<>(size + (size >> 1) + 1);
+        for (int i = 0; i < size; i++) {
+            if (numbers.put(ids.get(i), i) != null) {
+                throw new TreeNodeException("Unable to build the tree: duplicate tree node " + ids.get(i));
+            }
+        }
+        // parents by the tree node numbers, then the subtrees grouped by their parents
+        int[] parents = new int[size];
+        int[] subtreesStarts = new int[size + 1];
+        int root = -1;
+        for (int i = 0; i < size; i++) {
+            K parentId = parentIds.get(i);
+            if (parentId == null) {
+                if (root >= 0) {
+                    throw new TreeNodeException(String.format(
+                            "Unable to build the tree: both %1$s and %2$s are roots", ids.get(root), ids.get(i)));
+                }
+                root = i;
+                parents[i] = -1;
+                continue;
+            }
+            Integer parent = numbers.get(parentId);
+            if (parent == null) {
+                throw new TreeNodeException(String.format(
+                        "Unable to build the tree: the parent %1$s of the tree node %2$s is not found", parentId, ids.get(i)));
+            }
+            parents[i] = parent;
+            subtreesStarts[parent + 1]++;
+        }
+        if (root < 0) {
+            throw new TreeNodeException("Unable to build the tree: there is no root, the tree nodes form a cycle");
+        }
+        for (int i = 0; i < size; i++) {
+            subtreesStarts[i + 1] += subtreesStarts[i];
+        }
+        int[] subtrees = new int[size - 1];
+        int[] filled = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (parents[i] >= 0) {
+                subtrees[subtreesStarts[parents[i]] + filled[parents[i]]++] = i;
+            }
+        }
+        ensureReachable(root, subtrees, subtreesStarts);
+        // the generic array can not be created, so the raw one is cast
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayTreeNode<T>[] nodes = (ArrayTreeNode<T>[]) new ArrayTreeNode[size];
+        range(size).forEach(i -> nodes[i] = new ArrayTreeNode<>(data.get(i), subtreesStarts[i + 1] - subtreesStarts[i]));
+        range(size).forEach(i -> {
+            for (int j = subtreesStarts[i]; j < subtreesStarts[i + 1]; j++) {
+                nodes[i].appendBuiltSubtree(nodes[subtrees[j]]);
+            }
+        });
+        return nodes[root];
+    }
+
+    /**
+     * Checks all of the tree nodes are reachable from the root, since the tree
+     * nodes, which are not, form a cycle of parents or descend from one; each
+     * tree node has a single parent, so it is queued once at most
+     */
+    private void ensureReachable(int root, int[] subtrees, int[] subtreesStarts) {
+        int[] queue = new int[subtrees.length + 1];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int j = subtreesStarts[node]; j < subtreesStarts[node + 1]; j++) {
+                queue[tail++] = subtrees[j];
+            }
+        }
+        if (tail < queue.length) {
+            boolean[] reached = new boolean[queue.length];
+            for (int i = 0; i < tail; i++) {
+                reached[queue[i]] = true;
+            }
+            int unreached = 0;
+            while (reached[unreached]) {
+                unreached++;
+            }
+            throw new TreeNodeException(String.format(
+                    "Unable to build the tree: the tree node %1$s is not reachable from the root %2$s, its parents form a cycle",
+                    ids.get(unreached), ids.get(root)));
+        }
+    }
+
+    private IntStream range(int size) {
+        IntStream range = IntStream.range(0, size);
+        return parallel ? range.parallel() : range;
+    }
+}
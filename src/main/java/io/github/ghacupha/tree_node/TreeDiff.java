@@ -0,0 +1,249 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.NullNodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Comparison of two trees, e.g. of two copies of the same tree taken at
+ * different times, by means of their subtree hashes (see
+ * {@link TreeNode#subtreeHash()})
+ * <p>
+ * The comparison starts from the roots of the trees and descends only into
+ * the pairs of the tree nodes, whose subtree hashes differ, so comparing the
+ * trees, which differ a little, takes the time proportional to the number
+ * of the changed tree nodes and their subtrees rather than to the size of
+ * the trees. The subtrees of a pair of the tree nodes are paired as follows:
+ * <ul>
+ * <li>the subtrees with equal hashes are paired first, in order, and are
+ * considered unchanged;</li>
+ * <li>the remaining subtrees with equal data are paired next, in order, and
+ * are compared further;</li>
+ * <li>the remaining subtrees are paired in order, and the subtrees left
+ * without a pair are reported as removed from or added to the tree.</li>
+ * </ul>
+ * Hence the subtrees, which have only been reordered, are not reported.
+ * The subtree hashes of both of the trees are enabled by the comparison, see
+ * {@link TreeNode#enableSubtreeHash()}
+ */
+public final class TreeDiff {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeDiff.class);
+
+    private TreeDiff() {
+    }
+
+    /**
+     * Kind of the difference between two trees
+     */
+    public enum Kind {
+
+        /**
+         * The subtree is present in the right tree only
+         */
+        ADDED,
+
+        /**
+         * The subtree is present in the left tree only
+         */
+        REMOVED,
+
+        /**
+         * The paired tree nodes have different data
+         */
+        CHANGED
+    }
+
+    /**
+     * Difference between two trees, which refers to the tree node of the
+     * left tree, to the tree node of the right tree or to both of them
+     *
+     * @param <T> type of the data stored in the tree nodes
+     */
+    public static final class Difference<T> {
+
+        private final Kind kind;
+
+        private final TreeNode<T> left;
+
+        private final TreeNode<T> right;
+
+        private Difference(Kind kind, TreeNode<T> left, TreeNode<T> right) {
+            this.kind = kind;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns the kind of the difference
+         *
+         * @return kind of the difference
+         */
+        public Kind kind() {
+            return kind;
+        }
+
+        /**
+         * Returns the tree node of the left tree
+         *
+         * @return tree node of the left tree; {@code null} if the subtree
+         * has been added
+         */
+        public TreeNode<T> left() {
+            return left;
+        }
+
+        /**
+         * Returns the tree node of the right tree
+         *
+         * @return tree node of the right tree; {@code null} if the subtree
+         * has been removed
+         */
+        public TreeNode<T> right() {
+            return right;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + (left == null ? null : left.data()) + " -> " + (right == null ? null : right.data());
+        }
+    }
+
+    /**
+     * Compares the trees specified and returns the differences between them
+     * in a pre ordered manner
+     *
+     * @param left  root of the left, e.g. the older tree
+     * @param right root of the right, e.g. the newer tree
+     * @param <T>   type of the data stored in the tree nodes
+     * @return differences from the left tree to the right one; empty list
+     * if the trees are equal
+     * @throws NullNodeException if either of the tree nodes is {@code null}
+     */
+    public static <T> List<Difference<T>> compare(TreeNode<T> left, TreeNode<T> right) {
+        if (left == null || right == null) {
+            throw new NullNodeException("Unable to compare the trees: the tree node is null");
+        }
+        log.debug("Comparing the tree of the node : {} with the tree of the node : {}\n\n", left, right);
+        left.enableSubtreeHash();
+        right.enableSubtreeHash();
+        List<Difference<T>> differences = new ArrayList<>();
+        // the pairs of the tree nodes still to be compared, the next one on top
+        Deque<Difference<T>> pairs = new ArrayDeque<>();
+        pairs.push(new Difference<>(Kind.CHANGED, left, right));
+        while (!pairs.isEmpty()) {
+            Difference<T> pair = pairs.pop();
+            if (pair.left == null || pair.right == null) {
+                differences.add(pair);
+                continue;
+            }
+            if (pair.left.subtreeHash() == pair.right.subtreeHash()) {
+                continue;
+            }
+            if (!Objects.equals(pair.left.data(), pair.right.data())) {
+                differences.add(pair);
+            }
+            List<Difference<T>> subtreePairs = pairSubtrees(pair.left, pair.right);
+            for (int i = subtreePairs.size() - 1; i >= 0; i--) {
+                pairs.push(subtreePairs.get(i));
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Pairs the subtrees of the tree nodes specified, leaving out the ones
+     * with equal hashes
+     *
+     * @param left  tree node of the left tree
+     * @param right tree node of the right tree
+     * @param <T>   type of the data stored in the tree nodes
+     * @return pairs of the subtrees, which are to be compared further, in the
+     * order of the left subtrees followed by the added right subtrees
+     */
+    private static <T> List<Difference<T>> pairSubtrees(TreeNode<T> left, TreeNode<T> right) {
+        List<TreeNode<T>> rightSubtrees = new ArrayList<>();
+        Map<Long, Deque<Integer>> rightByHash = new HashMap<>();
+        for (TreeNode<T> subtree = right.firstChild(); subtree != null; subtree = subtree.nextSibling()) {
+            rightByHash.computeIfAbsent(subtree.subtreeHash(), hash -> new ArrayDeque<>()).add(rightSubtrees.size());
+            rightSubtrees.add(subtree);
+        }
+        boolean[] paired = new boolean[rightSubtrees.size()];
+        List<TreeNode<T>> unpairedLeft = new ArrayList<>();
+        for (TreeNode<T> subtree = left.firstChild(); subtree != null; subtree = subtree.nextSibling()) {
+            Deque<Integer> equal = rightByHash.get(subtree.subtreeHash());
+            if (equal != null && !equal.isEmpty()) {
+                paired[equal.poll()] = true;
+            } else {
+                unpairedLeft.add(subtree);
+            }
+        }
+        Map<Object, Deque<Integer>> rightByData = new HashMap<>();
+        for (int i = 0; i < paired.length; i++) {
+            if (!paired[i]) {
+                rightByData.computeIfAbsent(rightSubtrees.get(i).data(), data -> new ArrayDeque<>()).add(i);
+            }
+        }
+        List<Difference<T>> pairs = new ArrayList<>();
+        List<TreeNode<T>> unpairedByData = new ArrayList<>();
+        for (TreeNode<T> subtree : unpairedLeft) {
+            Deque<Integer> equal = rightByData.get(subtree.data());
+            if (equal != null && !equal.isEmpty()) {
+                int i = equal.poll();
+                paired[i] = true;
+                pairs.add(new Difference<>(Kind.CHANGED, subtree, rightSubtrees.get(i)));
+            } else {
+                unpairedByData.add(subtree);
+                pairs.add(null);
+            }
+        }
+        // the remaining subtrees are paired in order, taking the places left for them
+        int next = 0;
+        int remaining = 0;
+        for (int i = 0; i < pairs.size(); i++) {
+            if (pairs.get(i) == null) {
+                while (next < paired.length && paired[next]) {
+                    next++;
+                }
+                TreeNode<T> subtree = unpairedByData.get(remaining++);
+                if (next < paired.length) {
+                    paired[next] = true;
+                    pairs.set(i, new Difference<>(Kind.CHANGED, subtree, rightSubtrees.get(next)));
+                } else {
+                    pairs.set(i, new Difference<>(Kind.REMOVED, subtree, null));
+                }
+            }
+        }
+        for (int i = 0; i < paired.length; i++) {
+            if (!paired[i]) {
+                pairs.add(new Difference<>(Kind.ADDED, null, rightSubtrees.get(i)));
+            }
+        }
+        return pairs;
+    }
+}
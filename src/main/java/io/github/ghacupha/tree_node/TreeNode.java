@@ -22,24 +22,33 @@ import io.github.ghacupha.tree_node.util.NodeNotFoundException;
 import io.github.ghacupha.tree_node.util.NullNodeException;
 import io.github.ghacupha.tree_node.util.TreeNodeException;
 import io.github.ghacupha.tree_node.util.UnCloneableNodeException;
-import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.ghacupha.tree_node.util.TreeNodeUtils.ensureSingleParent;
 
@@ -104,6 +113,18 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      */
     private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
 
+    /**
+     * Value of the cached height, which indicates that the height has to be
+     * recalculated
+     */
+    private static final int UNKNOWN_HEIGHT = -1;
+
+    /**
+     * Seed of the subtree hashes, so that a leaf does not hash to the
+     * mixed hash code of its data alone
+     */
+    private static final long SUBTREE_HASH_SEED = 0x9E3779B97F4A7C15L;
+
     /**
      * A unique identifier, used to distinguish or compare the tree nodes
      */
@@ -112,7 +133,135 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
     /**
      * Reference to the parent tree node. Is {@code null} if the current tree node is root
      */
-    private TreeNode<T> parent;
+    private transient TreeNode<T> parent;
+
+    /**
+     * Number of times the subtrees of the current tree node have been
+     * structurally modified, used by {@link TreeNodeIterator} to fail fast
+     * without recounting the tree
+     */
+    private transient int modCount;
+
+    /**
+     * Indicates whether the size and the height of the current tree node are
+     * cached. Is {@code true} for all of the descendants of a tree node, for
+     * which it is {@code true}
+     */
+    private transient boolean sizeAndHeightCached;
+
+    /**
+     * Cached size of the current tree node, maintained while
+     * {@link #sizeAndHeightCached} is {@code true}
+     */
+    private transient long cachedSize;
+
+    /**
+     * Cached height of the current tree node, maintained while
+     * {@link #sizeAndHeightCached} is {@code true}; {@link #UNKNOWN_HEIGHT}
+     * if the height has to be recalculated
+     */
+    private transient int cachedHeight;
+
+    /**
+     * Indicates whether the subtree hash of the current tree node is
+     * maintained. Is {@code true} for all of the descendants of a tree
+     * node, for which it is {@code true}
+     */
+    private transient boolean subtreeHashed;
+
+    /**
+     * Indicates whether the {@link #cachedSubtreeHash} is up to date; the
+     * maintained hashes of the ancestors of a tree node with an outdated
+     * hash are outdated as well
+     */
+    private transient boolean subtreeHashKnown;
+
+    /**
+     * Cached subtree hash of the current tree node, valid while
+     * {@link #subtreeHashKnown} is {@code true}
+     */
+    private transient long cachedSubtreeHash;
+
+    /**
+     * Version of the tree, which has the current tree node as root. Is
+     * incremented each time a subtree is unlinked from the tree and each
+     * time the current tree node gets linked to a parent, which makes the
+     * {@link #cachedRoot} references to the current tree node stale
+     */
+    private transient int rootVersion;
+
+    /**
+     * Number of times the structure of the tree, which has the current tree
+     * node as root, has been changed; used by {@link AncestorIndex} to find
+     * out whether it is to be rebuilt
+     */
+    transient int treeModCount;
+
+    /**
+     * Pre ordered number of the current tree node, assigned by the latest
+     * built {@link AncestorIndex} of the tree
+     */
+    transient int preOrderIndex = -1;
+
+    /**
+     * Cached root of the current tree node; valid while it is still root
+     * and its {@link #rootVersion} equals {@link #cachedRootVersion}
+     */
+    private transient TreeNode<T> cachedRoot;
+
+    /**
+     * Version of the {@link #cachedRoot} tree the cache was filled at
+     */
+    private transient int cachedRootVersion;
+
+    /**
+     * Cached depth (level) of the current tree node, valid together with
+     * the {@link #cachedRoot}
+     */
+    private transient int cachedDepth;
+
+    /**
+     * Index of the nodes of the tree by their data; is kept by the root
+     * tree node only and is {@code null} unless {@link #enableDataIndex()}
+     * has been called
+     */
+    private transient DataIndex<T> dataIndex;
+
+    /**
+     * Indicates whether the tree, which has the current tree node as root,
+     * keeps the nested interval index; see {@link #enableIntervalIndex()}
+     */
+    private transient boolean intervalIndexed;
+
+    /**
+     * Modification count of the tree, which has the current tree node as
+     * root, at which the intervals of its tree nodes were stamped
+     */
+    private transient int intervalModCount;
+
+    /**
+     * Pre ordered number of the current tree node within its tree, stamped
+     * by the nested interval index
+     */
+    private transient int intervalStart;
+
+    /**
+     * Pre ordered number following the last descendant of the current tree
+     * node, stamped by the nested interval index
+     */
+    private transient int intervalEnd;
+
+    /**
+     * Live read only view of the subtrees, created on the first call
+     * of {@link #subtreesView()}
+     */
+    private transient List<TreeNode<T>> subtreesView;
+
+    /**
+     * Live read only view of the siblings, created on the first call
+     * of {@link #siblingsView()}
+     */
+    private transient Collection<TreeNode<T>> siblingsView;
 
     /**
      * Data store in the current tree node
@@ -139,19 +288,12 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      *
      * @param collection input collection to populate
      * @param <T>        type of the tree node
-     * @return traversal action, which populates the input collection with the tree nodes
+     * @return visitor, which populates the input collection with the tree nodes
      */
-    private static <T> TraversalAction<TreeNode<T>> populateAction(final Collection<TreeNode<T>> collection) {
-        return new TraversalAction<TreeNode<T>>() {
-            @Override
-            public void perform(TreeNode<T> node) {
-                collection.add(node);
-            }
-
-            @Override
-            public boolean isIncomplete() {
-                return true;
-            }
+    private static <T> TreeVisitor<TreeNode<T>> populateVisitor(final Collection<TreeNode<T>> collection) {
+        return node -> {
+            collection.add(node);
+            return TraversalControl.CONTINUE;
         };
     }
 
@@ -167,10 +309,50 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         log.debug("Linking node : {} to the parent : {}", node, parent);
         if (node != null) {
             ensureSingleParent(node, parent);
+            node.rootVersion++;
             node.parent = parent;
+            if (parent != null) {
+                TreeNode<T> root = parent.root();
+                root.treeModCount++;
+                DataIndex<T> index = root.dataIndex;
+                if (index != null) {
+                    if (node.dataIndex != null) {
+                        index.addAll(node.dataIndex);
+                    } else {
+                        index.addSubtree(node);
+                    }
+                }
+                node.dataIndex = null;
+                node.intervalIndexed = false;
+                parent.modCount++;
+                if (parent.sizeAndHeightCached) {
+                    node.enableSizeAndHeightCache();
+                    subtreeLinked(node);
+                }
+                if (parent.subtreeHashed) {
+                    node.enableSubtreeHash();
+                    invalidateSubtreeHashes(parent);
+                }
+            }
         }
     }
 
+    /**
+     * Links the specified parent tree node reference as the parent to the
+     * specified tree node of a tree being built in bulk, skipping the checks
+     * and the bookkeeping of {@link #linkParent(TreeNode, TreeNode)}, as the
+     * tree node is known to be a new root and the parent is known to have
+     * neither the index of the tree nodes by their data nor the size and
+     * height cache
+     *
+     * @param node   new tree node to assign the parent tree node reference to
+     * @param parent new tree node to assign as a parent reference
+     * @param <T>    type of the data stored in the tree nodes
+     */
+    static <T> void linkBuiltParent(TreeNode<T> node, TreeNode<T> parent) {
+        node.parent = parent;
+    }
+
 
     /**
      * Removes the parent tree node reference link from the specified tree node
@@ -179,9 +361,102 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      * @param <T>  type of the data store in the tree node
      */
     protected static <T> void unlinkParent(TreeNode<T> node) {
+        if (node.parent != null) {
+            TreeNode<T> parent = node.parent;
+            TreeNode<T> root = parent.root();
+            root.rootVersion++;
+            root.treeModCount++;
+            // the root and the depth of the parent itself stay the same
+            if (parent != root) {
+                parent.cachedRootVersion = root.rootVersion;
+            }
+            if (root.dataIndex != null) {
+                node.dataIndex = root.dataIndex.removeSubtree(node);
+            }
+            node.intervalIndexed = root.intervalIndexed;
+            node.intervalModCount = node.treeModCount - 1;
+            parent.modCount++;
+            if (node.parent.sizeAndHeightCached) {
+                subtreeUnlinked(node);
+            }
+            invalidateSubtreeHashes(parent);
+        }
         node.parent = null;
     }
 
+    /**
+     * Updates the cached sizes and heights of the ancestors of the specified
+     * subtree, which has just been linked to its parent
+     *
+     * @param subtree subtree, which has been linked
+     * @param <T>     type of the data stored in the tree nodes
+     */
+    private static <T> void subtreeLinked(TreeNode<T> subtree) {
+        boolean heightIncreasing = subtree.cachedHeight != UNKNOWN_HEIGHT;
+        if (!heightIncreasing) {
+            invalidateCachedHeights(subtree.parent);
+        }
+        TreeNode<T> child = subtree;
+        for (TreeNode<T> node = subtree.parent; node != null && node.sizeAndHeightCached; node = node.parent) {
+            node.cachedSize += subtree.cachedSize;
+            if (heightIncreasing) {
+                if (node.cachedHeight != UNKNOWN_HEIGHT && child.cachedHeight + 1 > node.cachedHeight) {
+                    node.cachedHeight = child.cachedHeight + 1;
+                } else {
+                    heightIncreasing = false;
+                }
+            }
+            child = node;
+        }
+    }
+
+    /**
+     * Updates the cached sizes and heights of the ancestors of the specified
+     * subtree, which is about to be unlinked from its parent
+     *
+     * @param subtree subtree, which is being unlinked
+     * @param <T>     type of the data stored in the tree nodes
+     */
+    private static <T> void subtreeUnlinked(TreeNode<T> subtree) {
+        for (TreeNode<T> node = subtree.parent; node != null && node.sizeAndHeightCached; node = node.parent) {
+            node.cachedSize -= subtree.cachedSize;
+        }
+        // the parent height may only decrease if it was defined by the subtree
+        if (subtree.cachedHeight == UNKNOWN_HEIGHT || subtree.cachedHeight + 1 == subtree.parent.cachedHeight) {
+            invalidateCachedHeights(subtree.parent);
+        }
+    }
+
+    /**
+     * Marks the cached heights of the specified tree node and of all of its
+     * ancestors to be recalculated
+     *
+     * @param node tree node to start from
+     * @param <T>  type of the data stored in the tree nodes
+     */
+    private static <T> void invalidateCachedHeights(TreeNode<T> node) {
+        // the ancestors of a node with an unknown height have unknown heights as well
+        while (node != null && node.sizeAndHeightCached && node.cachedHeight != UNKNOWN_HEIGHT) {
+            node.cachedHeight = UNKNOWN_HEIGHT;
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Marks the maintained subtree hashes of the specified tree node and of
+     * all of its ancestors to be recalculated
+     *
+     * @param node tree node to start from
+     * @param <T>  type of the data stored in the tree nodes
+     */
+    private static <T> void invalidateSubtreeHashes(TreeNode<T> node) {
+        // the ancestors of a node with an outdated hash have outdated hashes as well
+        while (node != null && node.subtreeHashed && node.subtreeHashKnown) {
+            node.subtreeHashKnown = false;
+            node = node.parent;
+        }
+    }
+
     /**
      * Checks whether there is at least one not {@code null} element within
      * the input collection
@@ -235,6 +510,153 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      */
     public abstract Collection<? extends TreeNode<T>> subtrees();
 
+    /**
+     * Returns an iterator over the child nodes of the current node, which is
+     * used by the tree node iterator to walk the tree without collecting the
+     * subtrees
+     * <p>
+     * Implementations are expected to override this method with a cursor over
+     * their own representation of the subtrees. The {@link Iterator#remove()}
+     * operation of the returned iterator must drop the last returned subtree
+     * from the current tree node
+     *
+     * @return iterator over the child nodes of the current node
+     */
+    protected Iterator<? extends TreeNode<T>> subtreesIterator() {
+        final Iterator<? extends TreeNode<T>> subtrees = subtrees().iterator();
+        return new Iterator<TreeNode<T>>() {
+            private TreeNode<T> lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return subtrees.hasNext();
+            }
+
+            @Override
+            public TreeNode<T> next() {
+                lastReturned = subtrees.next();
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                dropSubtree(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of the child nodes of the current node
+     * <p>
+     * Implementations are expected to override this method in order to
+     * answer without copying the subtrees
+     *
+     * @return number of the child nodes of the current node
+     */
+    public int childCount() {
+        return subtrees().size();
+    }
+
+    /**
+     * Returns the child node of the current node at the specified position
+     * <p>
+     * Implementations are expected to override this method in order to
+     * answer without copying the subtrees
+     *
+     * @param index position of the child node among the child nodes of the
+     *              current node
+     * @return child node of the current node at the specified position
+     * @throws IndexOutOfBoundsException if the index is negative or not
+     *                                   less than {@link #childCount()}
+     */
+    public TreeNode<T> childAt(int index) {
+        if (index >= 0) {
+            int i = 0;
+            for (TreeNode<T> subtree : subtrees()) {
+                if (i++ == index) {
+                    return subtree;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Child count: " + childCount());
+    }
+
+    /**
+     * Returns the first child node of the current node; {@code null} if the
+     * current node is a leaf
+     * <p>
+     * Implementations are expected to override this method in order to
+     * answer without copying the subtrees
+     *
+     * @return first child node of the current node; {@code null} if the
+     * current node is a leaf
+     */
+    public TreeNode<T> firstChild() {
+        Iterator<? extends TreeNode<T>> subtrees = subtrees().iterator();
+        return subtrees.hasNext() ? subtrees.next() : null;
+    }
+
+    /**
+     * Returns the child node of the parent, which follows the current node;
+     * {@code null} if the current node is root or the last child node of
+     * its parent
+     * <p>
+     * Implementations are expected to override this method in order to
+     * answer without copying the subtrees of the parent
+     *
+     * @return child node of the parent, which follows the current node;
+     * {@code null} if the current node is root or the last child node of
+     * its parent
+     */
+    public TreeNode<T> nextSibling() {
+        if (isRoot()) {
+            return null;
+        }
+        Iterator<? extends TreeNode<T>> siblings = parent.subtrees().iterator();
+        while (siblings.hasNext()) {
+            if (siblings.next().equals(this)) {
+                return siblings.hasNext() ? siblings.next() : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the read only view of the child nodes of the current node
+     * <p>
+     * Unlike {@link #subtrees()} the view is not a copy: it is created once
+     * per tree node and reflects the later changes of the subtrees
+     *
+     * @return read only view of the child nodes of the current node
+     */
+    public List<TreeNode<T>> subtreesView() {
+        if (subtreesView == null) {
+            subtreesView = new SubtreesView();
+        }
+        return subtreesView;
+    }
+
+    /**
+     * Returns the read only view of the nodes, which have the same parent
+     * as the current node; the view is empty if the current node is root
+     * <p>
+     * The view is created once per tree node and reflects the later changes
+     * of the tree, including the changes of the parent of the current node
+     *
+     * @return read only view of the nodes, which have the same parent as
+     * the current node
+     */
+    public Collection<TreeNode<T>> siblingsView() {
+        if (siblingsView == null) {
+            siblingsView = new SiblingsView();
+        }
+        return siblingsView;
+    }
+
     /**
      * Adds the subtree with all of its descendants to the current tree node
      * <p>
@@ -277,7 +699,42 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      */
     @Override
     @Nonnull
-    public abstract TreeNodeIterator iterator();
+    public TreeNodeIterator iterator() {
+        return new TreeNodeIterator();
+    }
+
+    /**
+     * Returns a spliterator over the elements in this tree in proper sequence
+     * <p>
+     * The spliterator splits along the subtree boundaries and keeps the pre
+     * order as the encounter order
+     *
+     * @return a spliterator over the elements in this tree in proper sequence
+     */
+    @Override
+    public Spliterator<TreeNode<T>> spliterator() {
+        return new TreeNodeSpliterator<>(this);
+    }
+
+    /**
+     * Returns a sequential stream of the elements in this tree in proper
+     * sequence
+     *
+     * @return a sequential stream of the elements in this tree
+     */
+    public Stream<TreeNode<T>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel stream of the elements in this tree, which
+     * is split along the subtree boundaries
+     *
+     * @return a possibly parallel stream of the elements in this tree
+     */
+    public Stream<TreeNode<T>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 
     /**
      * Returns the data object stored in the current tree node
@@ -294,9 +751,175 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      * @param data data object to store into the current tree node
      */
     public void setData(T data) {
+        beforeDataChange(data);
         this.data = data;
     }
 
+    /**
+     * Moves the current tree node within the index of the tree nodes by
+     * their data, if the tree has one, from its current data to the data
+     * specified, and outdates the maintained subtree hashes along the path
+     * to the root; to be called before the data is changed
+     *
+     * @param data data object, which is about to be stored into the
+     *             current tree node
+     */
+    void beforeDataChange(T data) {
+        DataIndex<T> index = root().dataIndex;
+        if (index != null) {
+            index.remove(data(), this);
+            index.add(data, this);
+        }
+        invalidateSubtreeHashes(this);
+    }
+
+    /**
+     * Outdates the maintained subtree hashes along the path to the root
+     * without touching the data, e.g. before the primitive value of a tree
+     * node, which is not indexed, is changed, so that it is never boxed
+     */
+    void invalidateSubtreeHashes() {
+        invalidateSubtreeHashes(this);
+    }
+
+    /**
+     * Enables the index of the tree nodes by their data for the entire tree
+     * the current tree node belongs to, so that {@link #find(Object)} and
+     * {@link #findAll(Object)} look the nodes up instead of traversing the tree
+     * <p>
+     * The index is kept by the root tree node and is maintained when the
+     * subtrees are added or dropped and when the data is set. A dropped
+     * subtree takes the index of its nodes along, and the index of a subtree
+     * added to an indexed tree is merged into the index of the tree. The data
+     * objects are expected not to change their hash codes while indexed
+     */
+    public void enableDataIndex() {
+        TreeNode<T> root = root();
+        if (root.dataIndex == null) {
+            root.dataIndex = new DataIndex<>();
+            root.dataIndex.addSubtree(root);
+        }
+    }
+
+    /**
+     * Disables the index of the tree nodes by their data for the entire tree
+     * the current tree node belongs to
+     *
+     * @see #enableDataIndex()
+     */
+    public void disableDataIndex() {
+        root().dataIndex = null;
+    }
+
+    /**
+     * Checks whether the tree the current tree node belongs to has the index
+     * of the tree nodes by their data enabled
+     *
+     * @return {@code true} if the tree the current tree node belongs to has
+     * the index of the tree nodes by their data enabled; {@code false} otherwise
+     * @see #enableDataIndex()
+     */
+    public boolean isDataIndexed() {
+        return root().dataIndex != null;
+    }
+
+    /**
+     * Enables the nested interval index for the entire tree the current tree
+     * node belongs to, so that {@link #contains(TreeNode)}, {@link #containsAll(Collection)},
+     * {@link #isAncestorOf(TreeNode)} and {@link #isDescendantOf(TreeNode)}
+     * compare the intervals of the tree nodes instead of searching the tree
+     * <p>
+     * Each tree node is stamped with its pre ordered number and the number
+     * following its last descendant, so that a tree node is a descendant of
+     * another one if its number falls within the interval of the other one.
+     * The intervals are stamped again on the first query after the tree has
+     * been changed, so the index pays off for the trees, which are queried
+     * more often than changed. The removals walk the parent references, so
+     * they do not stamp the intervals again. A dropped subtree keeps the
+     * index enabled
+     */
+    public void enableIntervalIndex() {
+        TreeNode<T> root = root();
+        if (!root.intervalIndexed) {
+            root.intervalIndexed = true;
+            root.intervalModCount = root.treeModCount - 1;
+        }
+    }
+
+    /**
+     * Disables the nested interval index for the entire tree the current
+     * tree node belongs to
+     *
+     * @see #enableIntervalIndex()
+     */
+    public void disableIntervalIndex() {
+        root().intervalIndexed = false;
+    }
+
+    /**
+     * Checks whether the tree the current tree node belongs to has the
+     * nested interval index enabled
+     *
+     * @return {@code true} if the tree the current tree node belongs to has
+     * the nested interval index enabled; {@code false} otherwise
+     * @see #enableIntervalIndex()
+     */
+    public boolean isIntervalIndexed() {
+        return root().intervalIndexed;
+    }
+
+    /**
+     * Returns the root of the tree the current tree node belongs to if the
+     * tree has the nested interval index enabled, stamping the intervals if
+     * the tree has changed since they were stamped last
+     *
+     * @return root of the tree if it has the nested interval index enabled;
+     *         {@code null} otherwise
+     */
+    private TreeNode<T> intervalIndexedRoot() {
+        TreeNode<T> root = root();
+        if (!root.intervalIndexed) {
+            return null;
+        }
+        if (root.intervalModCount != root.treeModCount) {
+            log.debug("Stamping the nested intervals of the tree: {}", root);
+            int number = 0;
+            TreeNode<T> node = root;
+            while (node != null) {
+                node.intervalStart = number++;
+                TreeNode<T> child = node.firstChild();
+                if (child != null) {
+                    node = child;
+                    continue;
+                }
+                // the tree nodes left behind get the number following their last descendants
+                TreeNode<T> sibling = null;
+                while (sibling == null) {
+                    node.intervalEnd = number;
+                    if (node == root) {
+                        break;
+                    }
+                    sibling = node.nextSibling();
+                    if (sibling == null) {
+                        node = node.parent();
+                    }
+                }
+                node = sibling;
+            }
+            root.intervalModCount = root.treeModCount;
+        }
+        return root;
+    }
+
+    /**
+     * Checks whether the specified tree node falls within the interval of the
+     * current tree node, which must belong to the tree with the root specified;
+     * the specified tree node is checked to belong to that tree as well
+     */
+    private boolean intervalContains(TreeNode<T> root, TreeNode<T> node) {
+        return node.root() == root && intervalStart < node.intervalStart && node.intervalStart < intervalEnd;
+    }
+
     /**
      * Checks whether the current tree node is the root of the tree
      *
@@ -320,12 +943,45 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isRoot()) {
             return this;
         }
+        cacheRootAndDepth();
+        log.debug("the node : {} is the root to the node : {}\n\n", cachedRoot, this);
+        return cachedRoot;
+    }
+
+    /**
+     * Checks whether the cached root and depth of the current tree node
+     * are up to date
+     *
+     * @return {@code true} if the cached root and depth of the current
+     * tree node are up to date; {@code false} otherwise
+     */
+    private boolean isRootAndDepthCached() {
+        return cachedRoot != null && cachedRoot.isRoot() && cachedRoot.rootVersion == cachedRootVersion;
+    }
+
+    /**
+     * Fills the cached root and depth of the current tree node and of its
+     * ancestors, walking up to the first ancestor, which has them cached
+     * already, or to the root
+     */
+    private void cacheRootAndDepth() {
+        if (isRootAndDepthCached()) {
+            return;
+        }
+        List<TreeNode<T>> path = new ArrayList<>();
         TreeNode<T> node = this;
-        do {
-            node = node.parent();
-        } while (!node.isRoot());
-        log.debug("the node : {} is the root to the node : {}\n\n", node, this);
-        return node;
+        while (!node.isRoot() && !node.isRootAndDepthCached()) {
+            path.add(node);
+            node = node.parent;
+        }
+        TreeNode<T> root = node.isRoot() ? node : node.cachedRoot;
+        int depth = node.isRoot() ? 0 : node.cachedDepth;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            TreeNode<T> pathNode = path.get(i);
+            pathNode.cachedRoot = root;
+            pathNode.cachedRootVersion = root.rootVersion;
+            pathNode.cachedDepth = ++depth;
+        }
     }
 
     /**
@@ -364,19 +1020,23 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isLeaf()) {
             return (data() == null ? data == null : data().equals(data)) ? this : null;
         }
-        final TreeNode<T>[] searchedNode = (TreeNode<T>[]) Array.newInstance(getClass(), 1);
-        traversePreOrder(new TraversalAction<TreeNode<T>>() {
-            @Override
-            public void perform(TreeNode<T> node) {
-                if ((node.data() == null ? data == null : node.data().equals(data))) {
-                    searchedNode[0] = node;
+        DataIndex<T> index = root().dataIndex;
+        if (index != null) {
+            TreeNode<T> searchedNode = null;
+            for (TreeNode<T> node : index.get(data)) {
+                if (isSelfOrAncestorOf(node) && (searchedNode == null || TreeTraversal.precedes(node, searchedNode))) {
+                    searchedNode = node;
                 }
             }
-
-            @Override
-            public boolean isIncomplete() {
-                return searchedNode[0] == null;
+            return searchedNode;
+        }
+        final TreeNode<T>[] searchedNode = (TreeNode<T>[]) Array.newInstance(getClass(), 1);
+        visitPreOrder(node -> {
+            if ((node.data() == null ? data == null : node.data().equals(data))) {
+                searchedNode[0] = node;
+                return TraversalControl.TERMINATE;
             }
+            return TraversalControl.CONTINUE;
         });
         log.debug("Data {} has been found on the node : {}\n\n", data, this);
         return searchedNode[0];
@@ -394,19 +1054,21 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isLeaf()) {
             return (data() == null ? data == null : data().equals(data)) ? Collections.singleton(this) : Collections.emptySet();
         }
-        final Collection<TreeNode<T>> searchedNodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
-        traversePreOrder(new TraversalAction<TreeNode<T>>() {
-            @Override
-            public void perform(TreeNode<T> node) {
-                if ((node.data() == null ? data == null : node.data().equals(data))) {
+        final Collection<TreeNode<T>> searchedNodes = new LinkedHashSet<>();
+        DataIndex<T> index = root().dataIndex;
+        if (index != null) {
+            for (TreeNode<T> node : index.get(data)) {
+                if (isSelfOrAncestorOf(node)) {
                     searchedNodes.add(node);
                 }
             }
-
-            @Override
-            public boolean isIncomplete() {
-                return true;
+            return searchedNodes;
+        }
+        visitPreOrder(node -> {
+            if ((node.data() == null ? data == null : node.data().equals(data))) {
+                searchedNodes.add(node);
             }
+            return TraversalControl.CONTINUE;
         });
         return searchedNodes;
     }
@@ -414,6 +1076,9 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
     /**
      * Checks whether among the current tree node subtrees there is
      * a specified subtree
+     * <p>
+     * Consults the parent reference of the subtree, so that neither the
+     * collection of the subtrees is created nor the subtrees are scanned
      *
      * @param subtree subtree whose presence within the current tree
      *                node children is to be checked
@@ -424,7 +1089,7 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (subtree == null || isLeaf() || subtree.isRoot()) {
             return false;
         }
-        return subtrees().stream().anyMatch(mSubtree -> mSubtree.equals(subtree));
+        return equals(subtree.parent());
     }
 
     /**
@@ -442,7 +1107,11 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (node == null || isLeaf() || node.isRoot()) {
             return false;
         }
-        return subtrees().stream().anyMatch(subtree -> subtree.equals(node) || subtree.contains(node));
+        TreeNode<T> root = intervalIndexedRoot();
+        if (root != null) {
+            return intervalContains(root, node);
+        }
+        return hasProperAncestor(node, this);
     }
 
     /**
@@ -461,7 +1130,32 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isLeaf() || areAllNulls(nodes)) {
             return false;
         }
-        return nodes.stream().allMatch(this::contains);
+        if (intervalIndexedRoot() != null) {
+            return nodes.stream().allMatch(this::contains);
+        }
+        Map<TreeNode<T>, Boolean> marks = new HashMap<>();
+        marks.put(this, Boolean.TRUE);
+        List<TreeNode<T>> path = new ArrayList<>();
+        for (TreeNode<T> node : nodes) {
+            if (node == null || node.isRoot()) {
+                return false;
+            }
+            path.clear();
+            TreeNode<T> mNode = node;
+            Boolean contained = marks.get(mNode);
+            while (contained == null) {
+                path.add(mNode);
+                mNode = mNode.parent();
+                contained = mNode == null ? Boolean.FALSE : marks.get(mNode);
+            }
+            if (!contained || node.equals(this)) {
+                return false;
+            }
+            for (TreeNode<T> visited : path) {
+                marks.put(visited, contained);
+            }
+        }
+        return true;
     }
 
     /**
@@ -478,10 +1172,8 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (node == null || isLeaf() || node.isRoot()) {
             return false;
         }
-        if (dropSubtree(node)) {
-            return true;
-        }
-        return subtrees().stream().anyMatch(subtree -> subtree.remove(node));
+        // the intervals would be stamped again after each removal, so the parent chain is walked instead
+        return hasProperAncestor(node, this) && node.parent().dropSubtree(node);
     }
 
     /**
@@ -518,12 +1210,7 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      *               node, while traversing the tree
      */
     public void traversePreOrder(TraversalAction<TreeNode<T>> action) {
-        if (action.isIncomplete()) {
-            action.perform(this);
-            if (!isLeaf()) {
-                subtrees().forEach(subtree -> subtree.traversePreOrder(action));
-            }
-        }
+        TreeTraversal.preOrder(this, action);
     }
 
     /**
@@ -535,17 +1222,107 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      *               node, while traversing the tree
      */
     public void traversePostOrder(TraversalAction<TreeNode<T>> action) {
-        if (action.isIncomplete()) {
-            if (!isLeaf()) {
-                subtrees().forEach(subtree -> subtree.traversePostOrder(action));
-            }
-            action.perform(this);
-        }
+        TreeTraversal.postOrder(this, action);
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the
+     * current tree node and calls the visitor on each traversed tree
+     * node
+     * <p>
+     * The descendants of a tree node, for which the visitor returns
+     * {@link TraversalControl#SKIP_SUBTREE}, are not traversed, and no
+     * more tree nodes are traversed after the visitor returns
+     * {@link TraversalControl#TERMINATE}
+     *
+     * @param visitor visitor, which is to be called on each tree node,
+     *                while traversing the tree
+     */
+    public void visitPreOrder(TreeVisitor<TreeNode<T>> visitor) {
+        TreeTraversal.preOrder(this, visitor);
+    }
+
+    /**
+     * Traverses the tree in a post ordered manner starting from the
+     * current tree node and calls the visitor on each traversed tree
+     * node after its subtrees
+     * <p>
+     * A tree node, for which {@link TreeVisitor#enter(TreeNode)} returns
+     * {@link TraversalControl#SKIP_SUBTREE}, is not traversed together
+     * with its descendants, and no more tree nodes are traversed after
+     * the visitor returns {@link TraversalControl#TERMINATE}
+     *
+     * @param visitor visitor, which is to be called on each tree node,
+     *                while traversing the tree
+     */
+    public void visitPostOrder(TreeVisitor<TreeNode<T>> visitor) {
+        TreeTraversal.postOrder(this, visitor);
+    }
+
+    /**
+     * Traverses the tree in a level ordered (breadth first) manner starting
+     * from the current tree node and performs the traversal action on each
+     * traversed tree node
+     *
+     * @param action action, which is to be performed on each tree
+     *               node, while traversing the tree
+     */
+    public void traverseLevelOrder(TraversalAction<TreeNode<T>> action) {
+        TreeTraversal.levelOrder(this, TreeVisitor.of(action));
+    }
+
+    /**
+     * Traverses the tree in a level ordered (breadth first) manner starting
+     * from the current tree node and calls the visitor on each traversed
+     * tree node
+     * <p>
+     * The descendants of a tree node, for which the visitor returns
+     * {@link TraversalControl#SKIP_SUBTREE}, are not traversed, and no
+     * more tree nodes are traversed after the visitor returns
+     * {@link TraversalControl#TERMINATE}
+     *
+     * @param visitor visitor, which is to be called on each tree node,
+     *                while traversing the tree
+     */
+    public void visitLevelOrder(TreeVisitor<TreeNode<T>> visitor) {
+        TreeTraversal.levelOrder(this, visitor);
+    }
+
+    /**
+     * Returns the lazy iterator over the current tree node and its
+     * descendants in a level ordered (breadth first) manner
+     * <p>
+     * The iterator holds at most two levels of the tree at a time and
+     * fails fast with {@link ConcurrentModificationException} if the
+     * tree is structurally modified during the iteration
+     *
+     * @return level ordered iterator over the current tree node and its
+     * descendants
+     */
+    public Iterator<TreeNode<T>> levelOrderIterator() {
+        return new TreeTraversal.LevelOrderIterator<>(this);
+    }
+
+    /**
+     * Returns the lazy iterator over the levels of the tree starting from
+     * the current tree node, which returns the nodes of each depth as a
+     * single batch, the current tree node alone being the first batch
+     * <p>
+     * The iterator fails fast with {@link ConcurrentModificationException}
+     * if the tree is structurally modified during the iteration
+     *
+     * @return iterator over the batches of nodes of each depth
+     */
+    public Iterator<List<TreeNode<T>>> levels() {
+        return new TreeTraversal.LevelsIterator<>(this);
     }
 
     /**
      * Returns the pre ordered collection of nodes of the current tree
      * starting from the current tree node
+     * <p>
+     * The collection is a snapshot, which is not affected by the later
+     * modifications of the tree
      *
      * @return pre ordered collection of nodes of the current tree starting
      * from the current tree node
@@ -554,15 +1331,17 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isLeaf()) {
             return Collections.singleton(this);
         }
-        final Collection<TreeNode<T>> mPreOrdered = new CopyOnWriteArrayList<>();
-        TraversalAction<TreeNode<T>> action = populateAction(mPreOrdered);
-        traversePreOrder(action);
+        final Collection<TreeNode<T>> mPreOrdered = newSnapshotList();
+        visitPreOrder(populateVisitor(mPreOrdered));
         return mPreOrdered;
     }
 
     /**
      * Returns the post ordered collection of nodes of the current tree
      * starting from the current tree node
+     * <p>
+     * The collection is a snapshot, which is not affected by the later
+     * modifications of the tree
      *
      * @return post ordered collection of nodes of the current tree starting
      * from the current tree node
@@ -571,12 +1350,23 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isLeaf()) {
             return Collections.singleton(this);
         }
-        final Collection<TreeNode<T>> mPostOrdered = new CopyOnWriteArrayList<>();
-        TraversalAction<TreeNode<T>> action = populateAction(mPostOrdered);
-        traversePostOrder(action);
+        final Collection<TreeNode<T>> mPostOrdered = newSnapshotList();
+        visitPostOrder(populateVisitor(mPostOrdered));
         return mPostOrdered;
     }
 
+    /**
+     * Creates the list to collect the nodes of the current tree into,
+     * sized exactly when the size of the current tree is cached
+     *
+     * @return empty list to collect the nodes of the current tree into
+     */
+    private List<TreeNode<T>> newSnapshotList() {
+        return sizeAndHeightCached && cachedSize <= Integer.MAX_VALUE
+                ? new ArrayList<>((int) cachedSize)
+                : new ArrayList<>();
+    }
+
     /**
      * Returns the collection of nodes, which connect the current node
      * with its descendants
@@ -597,13 +1387,15 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
             String message = String.format(errorMessage + "Current node %1$s is root", descendant);
             throw new TreeNodeException(message);
         }
-        List<TreeNode<T>> path = new CopyOnWriteArrayList<>();
+        List<TreeNode<T>> path = new ArrayList<>();
         TreeNode<T> node = descendant;
         path.add(node);
         while (!node.isRoot()) {
             node = node.parent();
-            path.add(0, node);
+            path.add(node);
             if (this.equals(node)) {
+                // collected bottom up, which keeps each step constant time
+                Collections.reverse(path);
                 return path;
             }
         }
@@ -612,7 +1404,12 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
     }
 
     /**
-     * Returns the common ancestor of the current node and the node specified
+     * Returns the common ancestor of the current node and the node specified,
+     * e.g. the deepest tree node, which is a proper ancestor of both of them
+     * <p>
+     * Walks up from the deeper of the tree nodes, so takes the time proportional
+     * to the depth of the tree. {@link AncestorIndex} answers the same kind of
+     * queries in constant time
      *
      * @param node node, which the common ancestor is determined for,
      *             along with the current node
@@ -628,19 +1425,28 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (node == null) {
             throw new NullNodeException(errorMessage);
         }
-        if (!this.root().contains(node)) {
+        if (node.isRoot() || !this.root().equals(node.root())) {
             throw new NodeNotFoundException(errorMessage, this, node);
         }
-        if (this.isRoot() || node.isRoot()) {
-            String message = String.format(errorMessage + "The tree node %1$s is root", this.isRoot() ? this : node);
+        if (this.isRoot()) {
+            String message = String.format(errorMessage + "The tree node %1$s is root", this);
             throw new TreeNodeException(message);
         }
-        if (this.equals(node) || node.isSiblingOf(this)) {
-            return parent();
+        TreeNode<T> thisAncestor = this.parent();
+        TreeNode<T> thatAncestor = node.parent();
+        int thisAncestorLevel = thisAncestor.level();
+        int thatAncestorLevel = thatAncestor.level();
+        for (; thisAncestorLevel > thatAncestorLevel; thisAncestorLevel--) {
+            thisAncestor = thisAncestor.parent();
+        }
+        for (; thatAncestorLevel > thisAncestorLevel; thatAncestorLevel--) {
+            thatAncestor = thatAncestor.parent();
+        }
+        while (!thisAncestor.equals(thatAncestor)) {
+            thisAncestor = thisAncestor.parent();
+            thatAncestor = thatAncestor.parent();
         }
-        int thisNodeLevel = this.level();
-        int thatNodeLevel = node.level();
-        return thisNodeLevel > thatNodeLevel ? node.parent() : this.parent();
+        return thisAncestor;
     }
 
     /**
@@ -671,14 +1477,23 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (node == null || isLeaf() || node.isRoot() || this.equals(node)) {
             return false;
         }
-        TreeNode<T> mNode = node;
-        while (!mNode.isRoot()) {
-            mNode = mNode.parent();
-            if (this.equals(mNode)) {
-                return true;
-            }
+        TreeNode<T> root = intervalIndexedRoot();
+        if (root != null) {
+            return intervalContains(root, node);
         }
-        return false;
+        return hasProperAncestor(node, this);
+    }
+
+    /**
+     * Checks whether the specified node of the same tree is the current tree
+     * node or one of its descendants
+     *
+     * @param node node of the same tree as the current tree node
+     * @return {@code true} if the specified node is the current tree node or
+     * one of its descendants; {@code false} otherwise
+     */
+    private boolean isSelfOrAncestorOf(TreeNode<T> node) {
+        return isRoot() || equals(node) || isAncestorOf(node);
     }
 
     /**
@@ -694,12 +1509,33 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (node == null || this.isRoot() || node.isLeaf() || this.equals(node)) {
             return false;
         }
-        TreeNode<T> mNode = this;
-        while (!mNode.isRoot()) {
-            mNode = mNode.parent();
-            if (node.equals(mNode)) {
+        TreeNode<T> root = intervalIndexedRoot();
+        if (root != null) {
+            // the intervals of a node from another tree are not comparable with the ones of this tree
+            return node.root() == root && node.intervalContains(root, this);
+        }
+        return hasProperAncestor(this, node);
+    }
+
+    /**
+     * Checks whether the specified ancestor lies on the parent chain of the
+     * specified node, by walking the parent references upwards, which takes
+     * time proportional to the depth of the node rather than to the size of
+     * the subtree rooted at the ancestor
+     *
+     * @param node     node whose parent chain is walked
+     * @param ancestor node looked up on the parent chain
+     * @param <T>      type of the data stored in the tree nodes
+     * @return {@code true} if the ancestor is a proper ancestor of the node;
+     * {@code false} otherwise
+     */
+    private static <T> boolean hasProperAncestor(TreeNode<T> node, TreeNode<T> ancestor) {
+        TreeNode<T> mNode = node.parent();
+        while (mNode != null) {
+            if (ancestor.equals(mNode)) {
                 return true;
             }
+            mNode = mNode.parent();
         }
         return false;
     }
@@ -711,23 +1547,17 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      */
     public long size() {
         log.debug("Checking the size of the node : {}\n\n", this);
+        if (sizeAndHeightCached) {
+            return cachedSize;
+        }
         if (isLeaf()) {
             return 1;
         }
         final long[] count = {0};
-        TraversalAction<TreeNode<T>> action = new TraversalAction<TreeNode<T>>() {
-            @Override
-            public void perform(TreeNode<T> node) {
-                count[0]++;
-            }
-
-            @Contract(pure = true)
-            @Override
-            public boolean isIncomplete() {
-                return true;
-            }
-        };
-        traversePreOrder(action);
+        visitPreOrder(node -> {
+            count[0]++;
+            return TraversalControl.CONTINUE;
+        });
         log.debug("The size of the node : {}, determined to be {}\n\n", this, count[0]);
         return count[0];
     }
@@ -740,20 +1570,270 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
      * on the longest downward path between that node and a leaf
      */
     public int height() {
+        if (sizeAndHeightCached) {
+            return cachedHeight();
+        }
+        return TreeTraversal.height(this);
+    }
 
-        if (isLeaf()) {
-            return 0;
+    /**
+     * Returns the cached height of the current tree node, recalculating the
+     * unknown heights of the current tree node and of its descendants from
+     * the heights of their subtrees
+     *
+     * @return cached height of the current tree node
+     */
+    private int cachedHeight() {
+        if (cachedHeight == UNKNOWN_HEIGHT) {
+            // the descendants with unknown heights are reached through the nodes with unknown heights only
+            List<TreeNode<T>> unknownHeightNodes = new ArrayList<>();
+            Deque<TreeNode<T>> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                TreeNode<T> node = stack.pop();
+                unknownHeightNodes.add(node);
+                for (Iterator<? extends TreeNode<T>> subtrees = node.subtreesIterator(); subtrees.hasNext(); ) {
+                    TreeNode<T> subtree = subtrees.next();
+                    if (subtree.cachedHeight == UNKNOWN_HEIGHT) {
+                        stack.push(subtree);
+                    }
+                }
+            }
+            for (int i = unknownHeightNodes.size() - 1; i >= 0; i--) {
+                TreeNode<T> node = unknownHeightNodes.get(i);
+                int height = 0;
+                for (Iterator<? extends TreeNode<T>> subtrees = node.subtreesIterator(); subtrees.hasNext(); ) {
+                    TreeNode<T> subtree = subtrees.next();
+                    height = Math.max(height, subtree.cachedHeight + 1);
+                }
+                node.cachedHeight = height;
+            }
+        }
+        return cachedHeight;
+    }
+
+    /**
+     * Enables caching of the size and the height of the current tree node and
+     * of all of its descendants, so that {@link #size()} and {@link #height()}
+     * take constant time
+     * <p>
+     * The caches are maintained along the ancestor chain each time a subtree
+     * is added or dropped, which adds O(depth) time to these operations.
+     * Subtrees, which are added to a tree node with the caching enabled, get
+     * the caching enabled as well. Once enabled, the caching stays enabled
+     *
+     * @see #isSizeAndHeightCached()
+     */
+    public void enableSizeAndHeightCache() {
+        if (sizeAndHeightCached) {
+            return;
+        }
+        TreeTraversal.postOrder(this, node -> {
+            long size = 1;
+            int height = 0;
+            for (Iterator<? extends TreeNode<T>> subtrees = node.subtreesIterator(); subtrees.hasNext(); ) {
+                TreeNode<T> subtree = subtrees.next();
+                size += subtree.cachedSize;
+                height = Math.max(height, subtree.cachedHeight + 1);
+            }
+            node.cachedSize = size;
+            node.cachedHeight = height;
+            node.sizeAndHeightCached = true;
+            return TraversalControl.CONTINUE;
+        });
+    }
+
+    /**
+     * Checks whether the size and the height of the current tree node are
+     * cached
+     *
+     * @return {@code true} if the size and the height of the current tree
+     * node are cached; {@code false} otherwise
+     * @see #enableSizeAndHeightCache()
+     */
+    public boolean isSizeAndHeightCached() {
+        return sizeAndHeightCached;
+    }
+
+    /**
+     * Returns the subtree hash of the current tree node, which combines the
+     * hash code of its data with the subtree hashes of its subtrees in their
+     * order, so that the equal subtrees have equal hashes wherever they are
+     * <p>
+     * The hash takes constant time once maintained, see
+     * {@link #enableSubtreeHash()}; otherwise it is calculated traversing the
+     * entire subtree. The trees with equal hashes are assumed to be equal,
+     * which holds unless either the 64 bit hashes or the hash codes of the
+     * data collide
+     *
+     * @return subtree hash of the current tree node
+     */
+    public long subtreeHash() {
+        if (subtreeHashed) {
+            return cachedSubtreeHash();
+        }
+        // the hashes of the visited subtrees, waiting for their parents
+        final long[][] hashes = {new long[16]};
+        final int[] top = {0};
+        TreeTraversal.postOrder(this, node -> {
+            int subtrees = node.childCount();
+            top[0] -= subtrees;
+            long hash = dataHash(node.data());
+            for (int i = 0; i < subtrees; i++) {
+                hash = combineHash(hash, hashes[0][top[0] + i]);
+            }
+            if (top[0] == hashes[0].length) {
+                hashes[0] = Arrays.copyOf(hashes[0], top[0] << 1);
+            }
+            hashes[0][top[0]++] = hash;
+            return TraversalControl.CONTINUE;
+        });
+        return hashes[0][0];
+    }
+
+    /**
+     * Returns the maintained subtree hash of the current tree node,
+     * recalculating the outdated hashes of the current tree node and of its
+     * descendants from the hashes of their subtrees
+     *
+     * @return maintained subtree hash of the current tree node
+     */
+    private long cachedSubtreeHash() {
+        if (!subtreeHashKnown) {
+            // the descendants with outdated hashes are reached through the nodes with outdated hashes only
+            List<TreeNode<T>> outdatedNodes = new ArrayList<>();
+            Deque<TreeNode<T>> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                TreeNode<T> node = stack.pop();
+                outdatedNodes.add(node);
+                for (TreeNode<T> subtree = node.firstChild(); subtree != null; subtree = subtree.nextSibling()) {
+                    if (!subtree.subtreeHashKnown) {
+                        stack.push(subtree);
+                    }
+                }
+            }
+            for (int i = outdatedNodes.size() - 1; i >= 0; i--) {
+                outdatedNodes.get(i).updateSubtreeHash();
+            }
+        }
+        return cachedSubtreeHash;
+    }
+
+    /**
+     * Calculates the maintained subtree hash of the current tree node from
+     * the up to date hashes of its subtrees
+     */
+    private void updateSubtreeHash() {
+        long hash = dataHash(data());
+        for (TreeNode<T> subtree = firstChild(); subtree != null; subtree = subtree.nextSibling()) {
+            hash = combineHash(hash, subtree.cachedSubtreeHash);
+        }
+        cachedSubtreeHash = hash;
+        subtreeHashKnown = true;
+    }
+
+    /**
+     * Returns the hash of a tree node without subtrees, which has the data
+     * specified
+     *
+     * @param data data of the tree node
+     * @return hash of a tree node without subtrees
+     */
+    private static long dataHash(Object data) {
+        return mixHash(SUBTREE_HASH_SEED + Objects.hashCode(data));
+    }
+
+    /**
+     * Appends the hash of the next subtree to the hash of a tree node
+     *
+     * @param hash        hash of the tree node and its preceding subtrees
+     * @param subtreeHash hash of the next subtree
+     * @return hash of the tree node and its subtrees up to the next one
+     */
+    private static long combineHash(long hash, long subtreeHash) {
+        return mixHash(hash * 31 + subtreeHash);
+    }
+
+    /**
+     * Spreads the bits of the hash specified (the finalizer of the SplitMix64
+     * generator), so that the close hashes are not combined into close hashes
+     *
+     * @param hash hash to spread
+     * @return spread hash
+     */
+    private static long mixHash(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Enables maintaining the subtree hashes of the current tree node and of
+     * all of its descendants, so that {@link #subtreeHash()} takes constant
+     * time and {@link #diff(TreeNode)} descends into the changed subtrees only
+     * <p>
+     * Each time a subtree is added or dropped or the data is set, the hashes
+     * along the ancestor chain are marked outdated, which adds O(depth) time
+     * to these operations, and they are recalculated on demand from the
+     * hashes of the unchanged subtrees. Subtrees, which are added to a tree
+     * node with the hashes maintained, get them maintained as well. Once
+     * enabled, the hashes stay maintained
+     *
+     * @see #isSubtreeHashed()
+     */
+    public void enableSubtreeHash() {
+        if (subtreeHashed) {
+            return;
         }
-        final int[] height = {0};
+        TreeTraversal.postOrder(this, new TreeVisitor<TreeNode<T>>() {
+            @Override
+            public TraversalControl enter(TreeNode<T> node) {
+                // the subtrees with the hashes maintained already keep their hashes
+                return node.subtreeHashed ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+            }
 
-        subtrees().forEach(subTree -> height[0] = Math.max(height[0], subTree.height()));
+            @Override
+            public TraversalControl visit(TreeNode<T> node) {
+                for (TreeNode<T> subtree = node.firstChild(); subtree != null; subtree = subtree.nextSibling()) {
+                    subtree.cachedSubtreeHash();
+                }
+                node.subtreeHashed = true;
+                node.updateSubtreeHash();
+                return TraversalControl.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Checks whether the subtree hash of the current tree node is maintained
+     *
+     * @return {@code true} if the subtree hash of the current tree node is
+     * maintained; {@code false} otherwise
+     * @see #enableSubtreeHash()
+     */
+    public boolean isSubtreeHashed() {
+        return subtreeHashed;
+    }
 
-        return height[0] + 1;
+    /**
+     * Compares the current tree node with the tree node specified, e.g. an
+     * older or a newer copy of it, and returns the differences between them,
+     * enabling the subtree hashes of both, see {@link TreeDiff}
+     *
+     * @param other tree node to compare the current tree node with
+     * @return differences from the current tree node to the one specified
+     */
+    public List<TreeDiff.Difference<T>> diff(TreeNode<T> other) {
+        return TreeDiff.compare(this, other);
     }
 
     /**
      * Returns the depth (level) of the current tree node within the entire tree,
      * e.g. the number of edges between the root tree node and the current one
+     * <p>
+     * The depth and the root are cached along the path to the root and stay
+     * valid until a subtree gets unlinked from the tree
      *
      * @return depth (level) of the current tree node within the entire tree,
      * e.g. the number of edges between the root tree node and the current
@@ -764,14 +1844,79 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         if (isRoot()) {
             return 0;
         }
-        int level = 0;
-        TreeNode<T> node = this;
-        while (!node.isRoot()) {
-            node = node.parent();
-            level++;
-        }
-        log.debug("The level of the node : {} determined to be {}", this, level);
-        return level;
+        cacheRootAndDepth();
+        log.debug("The level of the node : {} determined to be {}", this, cachedDepth);
+        return cachedDepth;
+    }
+
+    /**
+     * Creates the immutable compact copy of the tree, which has the current
+     * tree node as root
+     * <p>
+     * The copy keeps no references to the tree nodes, so that it is not
+     * affected by the further changes of the tree
+     *
+     * @return immutable compact copy of the tree, which has the current tree
+     *         node as root
+     */
+    public FrozenTree<T> freeze() {
+        return new FrozenTree<>(this);
+    }
+
+    /**
+     * Creates the query over the current tree node and its descendants,
+     * which initially matches all of them
+     *
+     * @return query over the current tree node and its descendants
+     * @see TreeQuery
+     */
+    public TreeQuery<T> query() {
+        return new TreeQuery<>(this);
+    }
+
+    /**
+     * Replaces the current tree node with the compact serialized form of the
+     * entire tree it belongs to, so that the tree is written iteratively
+     * rather than by following the references between the tree nodes
+     * <p>
+     * Subclasses may override this method to provide their own serialized
+     * form. The override is called for each tree node written, including the
+     * ones written by the compact serialized form of their tree, so it should
+     * return the result of this method for the tree nodes it does not
+     * replace itself
+     *
+     * @return serialized form of the tree the current tree node belongs to
+     * @throws ObjectStreamException never by this implementation
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        return SerializedTree.replace(this);
+    }
+
+    /**
+     * Creates a detached tree node of the same class and with the same
+     * settings as the current one, holding the data specified, so that the
+     * compact serialized form of the tree writes only the data of the tree
+     * nodes, which are like the tree node written before them
+     *
+     * @param data data to store in the new tree node
+     * @return new tree node like the current one; {@code null} if the class
+     * of the current tree node does not support it
+     * @see #isLike(TreeNode)
+     */
+    TreeNode<T> createLike(T data) {
+        return null;
+    }
+
+    /**
+     * Checks whether the specified tree node is recreated from its data by
+     * {@link #createLike(Object)} of the current tree node
+     *
+     * @param node tree node to check
+     * @return {@code true} if the tree node is recreated from its data by the
+     * current tree node; {@code false} otherwise
+     */
+    boolean isLike(TreeNode<T> node) {
+        return false;
     }
 
     /**
@@ -783,7 +1928,11 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
     @Override
     public TreeNode<T> clone() {
         try {
-            return (TreeNode<T>) super.clone();
+            TreeNode<T> clone = (TreeNode<T>) super.clone();
+            clone.subtreesView = null;
+            clone.siblingsView = null;
+            clone.dataIndex = null;
+            return clone;
         } catch (CloneNotSupportedException e) {
             throw new UnCloneableNodeException(e);
         }
@@ -829,107 +1978,166 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         final StringBuilder builder = new StringBuilder();
         builder.append("\n");
         final int topNodeLevel = level();
-        TraversalAction<TreeNode<T>> action = new TraversalAction<TreeNode<T>>() {
-            @Override
-            public void perform(TreeNode<T> node) {
-                int nodeLevel = node.level() - topNodeLevel;
-                IntStream.range(0, nodeLevel).mapToObj(i -> "|  ").forEachOrdered(builder::append);
-                builder.append("+- ").append(node.data()).append("\n");
-            }
-
-            @Override
-            public boolean isIncomplete() {
-                return true;
+        visitPreOrder(node -> {
+            int nodeLevel = node.level() - topNodeLevel;
+            for (int i = 0; i < nodeLevel; i++) {
+                builder.append("|  ");
             }
-        };
-        traversePreOrder(action);
+            builder.append("+- ").append(node.data()).append("\n");
+            return TraversalControl.CONTINUE;
+        });
         return builder.toString();
     }
 
     /**
-     * Base tree node iterator, which is expected to be extended by {@link TreeNode}
-     * subclasses in order to perform custom implementation and return it in
-     * {@link #iterator()}
+     * Live read only view of the child nodes of the current tree node,
+     * returned by {@link #subtreesView()}
      */
-    protected abstract class TreeNodeIterator implements Iterator<TreeNode<T>> {
+    private final class SubtreesView extends AbstractList<TreeNode<T>> {
 
-        /**
-         * An expected size of the tree node required to check
-         * whether the tree node was changed during <b>foreach</b>
-         * iteration
-         */
-        private long expectedSize = size();
+        @Override
+        public TreeNode<T> get(int index) {
+            return childAt(index);
+        }
+
+        @Override
+        public int size() {
+            return childCount();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return isLeaf();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof TreeNode && hasSubtree((TreeNode<T>) o);
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<TreeNode<T>> iterator() {
+            return new SiblingsIterator<>(firstChild(), null);
+        }
+    }
+
+    /**
+     * Live read only view of the siblings of the current tree node,
+     * returned by {@link #siblingsView()}
+     */
+    private final class SiblingsView extends AbstractCollection<TreeNode<T>> {
+
+        @Override
+        public int size() {
+            return isRoot() ? 0 : parent.childCount() - 1;
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<TreeNode<T>> iterator() {
+            return new SiblingsIterator<>(isRoot() ? null : parent.firstChild(), TreeNode.this);
+        }
+    }
+
+    /**
+     * Read only iterator, which follows the {@link #nextSibling()} references
+     */
+    private static final class SiblingsIterator<T> implements Iterator<TreeNode<T>> {
 
         /**
-         * Reference to the current tree node within iteration
+         * Node, which is not to be returned
          */
-        private TreeNode<T> currentNode;
+        private final TreeNode<T> skippedNode;
 
         /**
-         * Reference to the next tree node within iteration
+         * Node to be returned next
          */
-        private TreeNode<T> nextNode = TreeNode.this;
+        private TreeNode<T> nextNode;
+
+        private SiblingsIterator(TreeNode<T> firstNode, TreeNode<T> skippedNode) {
+            this.skippedNode = skippedNode;
+            this.nextNode = skip(firstNode);
+        }
+
+        private TreeNode<T> skip(TreeNode<T> node) {
+            return node != null && node == skippedNode ? node.nextSibling() : node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public TreeNode<T> next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            TreeNode<T> node = nextNode;
+            nextNode = skip(node.nextSibling());
+            return node;
+        }
+    }
+
+    /**
+     * Pre ordered tree node iterator, returned by {@link #iterator()}
+     * <p>
+     * The iterator keeps a cursor over the subtrees of each node on the path
+     * from the starting node to the current node, so each step costs amortized
+     * constant time. Modifications are detected by comparing the modification
+     * counts of the nodes on that path, rather than by recounting the tree
+     */
+    protected class TreeNodeIterator implements Iterator<TreeNode<T>> {
 
         /**
-         * Indicates whether there is a next tree node available
-         * within iteration
+         * Cursors over the subtrees of the ancestors of the current tree node,
+         * the innermost one on top
          */
-        private boolean nextNodeAvailable = true;
+        private final Deque<SubtreesCursor> cursors = new ArrayDeque<>();
 
         /**
-         * Returns the leftmost node of the current tree node if the
-         * current tree node is not a leaf
-         *
-         * @return leftmost node of the current tree node if the current
-         * tree node is not a leaf
-         * @throws TreeNodeException an exception that is thrown in case
-         *                           if the current tree node is a leaf
+         * Reference to the current tree node within iteration
          */
-        protected abstract TreeNode<T> leftMostNode();
+        private TreeNode<T> currentNode;
 
         /**
-         * Returns the right sibling node of the current tree node if the
-         * current tree node is not root
-         *
-         * @return right sibling node of the current tree node if the current
-         * tree node is not root
-         * @throws TreeNodeException an exception that may be thrown in case if
-         *                           the current tree node is root
+         * Indicates whether the subtrees of the current tree node are still
+         * to be visited
          */
-        protected abstract TreeNode<T> rightSiblingNode();
+        private boolean descendPending;
 
         /**
-         * Checks whether the current tree node is not a leaf and returns the
-         * leftmost node from {@link #leftMostNode()}
+         * Returns the leftmost node of the current tree node if the
+         * current tree node is not a leaf
          *
-         * @return leftmost node of the current tree node if the current tree
-         * node is not a leaf
-         * @throws TreeNodeException an exception that is thrown in case
-         *                           if the current tree node is a leaf
+         * @return leftmost node of the current tree node if the current
+         * tree node is not a leaf; {@code null} otherwise
+         * @deprecated the iteration keeps a cursor over the subtrees of each
+         * node instead and no longer calls this method, which is kept for
+         * the iterators of the existing subclasses overriding it;
+         * use {@link TreeNode#firstChild()} instead
          */
-        private TreeNode<T> checkAndGetLeftMostNode() {
-            if (isLeaf()) {
-                throw new TreeNodeException("Leftmost node can't be obtained. Current tree node is a leaf");
-            } else {
-                return leftMostNode();
-            }
+        @Deprecated
+        protected TreeNode<T> leftMostNode() {
+            return firstChild();
         }
 
         /**
-         * Checks whether the current tree node is not root and returns the
-         * right sibling node from {@link #rightSiblingNode()}
+         * Returns the right sibling node of the current tree node if the
+         * current tree node is not root
          *
          * @return right sibling node of the current tree node if the current
-         * tree node is not root
-         * @throws TreeNodeException an exception that may be thrown in case if
-         *                           the current tree node is root
+         * tree node is not root; {@code null} otherwise
+         * @deprecated the iteration keeps a cursor over the subtrees of each
+         * node instead and no longer calls this method, which is kept for
+         * the iterators of the existing subclasses overriding it;
+         * use {@link TreeNode#nextSibling()} instead
          */
-        private TreeNode<T> checkAndGetRightSiblingNode() {
-            if (isRoot()) {
-                throw new TreeNodeException("Right sibling node can't be obtained. Current tree node is root");
-            } else {
-                return rightSiblingNode();
-            }
+        @Deprecated
+        protected TreeNode<T> rightSiblingNode() {
+            return nextSibling();
         }
 
         /**
@@ -941,7 +2149,18 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
          */
         @Override
         public boolean hasNext() {
-            return nextNodeAvailable;
+            if (!isIterationStarted() || (descendPending && !currentNode.isLeaf())) {
+                return true;
+            }
+            while (!cursors.isEmpty()) {
+                SubtreesCursor cursor = cursors.peek();
+                // let next() report the modification
+                if (cursor.isModified() || cursor.subtrees.hasNext()) {
+                    return true;
+                }
+                cursors.pop();
+            }
+            return false;
         }
 
         /**
@@ -953,44 +2172,36 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
         @Override
         public TreeNode<T> next() {
             checkForConcurrentModification();
-            if (!hasNext()) {
-                throw new NoSuchElementException();
+            if (!isIterationStarted()) {
+                currentNode = TreeNode.this;
+                descendPending = true;
+                return currentNode;
             }
-            currentNode = nextNode;
-            if (nextNode.isLeaf()) {
-                if (nextNode.isRoot()) {
-                    nextNodeAvailable = false;
-                } else {
-                    do {
-                        TreeNode<T> currentNode = nextNode;
-                        nextNode = nextNode.parent();
-                        if (currentNode.equals(TreeNode.this)) {
-                            nextNodeAvailable = false;
-                            break;
-                        }
-                        TreeNode<T> nextSibling = Objects.requireNonNull(currentNode.iterator()).checkAndGetRightSiblingNode();
-                        if (nextSibling != null) {
-                            nextNode = nextSibling;
-                            break;
-                        }
-                    } while (true);
+            if (descendPending && !currentNode.isLeaf()) {
+                cursors.push(new SubtreesCursor(currentNode));
+            }
+            descendPending = false;
+            while (!cursors.isEmpty()) {
+                SubtreesCursor cursor = cursors.peek();
+                cursor.checkForConcurrentModification();
+                if (cursor.subtrees.hasNext()) {
+                    currentNode = cursor.subtrees.next();
+                    descendPending = true;
+                    return currentNode;
                 }
-            } else {
-                nextNode = Objects.requireNonNull(nextNode.iterator()).checkAndGetLeftMostNode();
+                cursors.pop();
             }
-            return currentNode;
+            throw new NoSuchElementException();
         }
 
         /**
-         * Checks whether tree node was changed during <b>foreach</b>
-         * iteration and throws {@link ConcurrentModificationException}
-         * exception if so
+         * Checks whether the subtrees of the innermost node being iterated
+         * were changed during <b>foreach</b> iteration and throws
+         * {@link ConcurrentModificationException} exception if so
          */
         private void checkForConcurrentModification() {
-
-            // really clever code
-            if (expectedSize != size()) {
-                throw new ConcurrentModificationException();
+            if (!cursors.isEmpty()) {
+                cursors.peek().checkForConcurrentModification();
             }
         }
 
@@ -1023,23 +2234,21 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
                 throw new TreeNodeException(errorMessage + "The starting node can't be removed");
             }
             checkForConcurrentModification();
-            TreeNode<T> currentNode = this.currentNode;
-            while (true) {
-                if (currentNode.isRoot()) {
-                    nextNodeAvailable = false;
-                    break;
-                }
-                TreeNode<T> rightSiblingNode = currentNode.iterator().checkAndGetRightSiblingNode();
-                if (rightSiblingNode != null) {
-                    nextNode = rightSiblingNode;
-                    break;
-                }
-                currentNode = currentNode.parent;
+            TreeNode<T> parent = currentNode.parent();
+            // the current node is the parent of the previously removed node
+            if (!cursors.isEmpty() && cursors.peek().parent == currentNode) {
+                cursors.pop();
             }
-            TreeNode<T> parent = this.currentNode.parent();
-            parent.dropSubtree(this.currentNode);
-            this.currentNode = parent;
-            expectedSize = size();
+            if (!cursors.isEmpty() && cursors.peek().parent == parent) {
+                SubtreesCursor cursor = cursors.peek();
+                cursor.subtrees.remove();
+                cursor.expectedModCount = parent.modCount;
+            } else {
+                // the cursor over the siblings has already been exhausted
+                parent.dropSubtree(currentNode);
+            }
+            currentNode = parent;
+            descendPending = false;
         }
 
         /**
@@ -1051,6 +2260,35 @@ public abstract class TreeNode<T> implements Iterable<TreeNode<T>>, Serializable
             return currentNode != null;
         }
 
+        /**
+         * Cursor over the subtrees of a single tree node, which remembers
+         * the modification count of the node it was created for
+         */
+        private final class SubtreesCursor {
+
+            private final TreeNode<T> parent;
+
+            private final Iterator<? extends TreeNode<T>> subtrees;
+
+            private int expectedModCount;
+
+            private SubtreesCursor(TreeNode<T> parent) {
+                this.parent = parent;
+                this.subtrees = parent.subtreesIterator();
+                this.expectedModCount = parent.modCount;
+            }
+
+            private boolean isModified() {
+                return parent.modCount != expectedModCount;
+            }
+
+            private void checkForConcurrentModification() {
+                if (isModified()) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,177 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the tree nodes in a pre ordered manner, returned by
+ * {@link TreeNode#spliterator()}
+ * <p>
+ * The spliterator covers a single node, followed by the node currently being
+ * traversed, followed by the range of whole subtrees not entered yet. It
+ * splits off a prefix of that sequence along the subtree boundaries; when
+ * only a single subtree is left, it is split into its root and its child
+ * subtrees, so that the encounter order stays the pre order
+ * <p>
+ * The size estimate is exact if the tree has the size cache enabled and
+ * is halved on each split otherwise. The tree is not to be changed while
+ * being traversed
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+final class TreeNodeSpliterator<T> implements Spliterator<TreeNode<T>> {
+
+    /**
+     * Node to be returned first without its subtrees; {@code null} if none
+     */
+    private TreeNode<T> head;
+
+    /**
+     * Root of the subtree currently being traversed; {@code null} if none
+     */
+    private TreeNode<T> walkRoot;
+
+    /**
+     * Next node of the subtree currently being traversed
+     */
+    private TreeNode<T> walkNext;
+
+    /**
+     * Subtrees to be traversed after the current one
+     */
+    private List<TreeNode<T>> subtrees;
+
+    /**
+     * Index of the next subtree to be traversed
+     */
+    private int index;
+
+    /**
+     * Index past the last subtree to be traversed
+     */
+    private int fence;
+
+    /**
+     * Indicates whether the {@link #estimatedSize} is exact
+     */
+    private final boolean sized;
+
+    /**
+     * Estimated number of the remaining nodes
+     */
+    private long estimatedSize;
+
+    /**
+     * Creates the spliterator over the specified tree node with all of its
+     * descendants
+     *
+     * @param node tree node to start the traversal from
+     */
+    TreeNodeSpliterator(TreeNode<T> node) {
+        this(null, null, null, Collections.singletonList(node), 0, 1, node.isSizeAndHeightCached(),
+            node.isSizeAndHeightCached() ? node.size() : Long.MAX_VALUE);
+    }
+
+    private TreeNodeSpliterator(TreeNode<T> head, TreeNode<T> walkRoot, TreeNode<T> walkNext, List<TreeNode<T>> subtrees,
+                                int index, int fence, boolean sized, long estimatedSize) {
+        this.head = head;
+        this.walkRoot = walkRoot;
+        this.walkNext = walkNext;
+        this.subtrees = subtrees;
+        this.index = index;
+        this.fence = fence;
+        this.sized = sized;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super TreeNode<T>> action) {
+        TreeNode<T> node;
+        if (head != null) {
+            node = head;
+            head = null;
+        } else {
+            if (walkNext == null) {
+                if (index >= fence) {
+                    return false;
+                }
+                walkRoot = subtrees.get(index++);
+                walkNext = walkRoot;
+            }
+            node = walkNext;
+            walkNext = TreeTraversal.nextPreOrdered(walkRoot, node, true);
+        }
+        if (sized) {
+            estimatedSize--;
+        }
+        action.accept(node);
+        return true;
+    }
+
+    @Override
+    public Spliterator<TreeNode<T>> trySplit() {
+        if (head == null && walkNext == null && fence - index == 1 && !subtrees.get(index).isLeaf()) {
+            // split the only subtree left into its root and its child subtrees
+            TreeNode<T> subtree = subtrees.get(index);
+            head = subtree;
+            subtrees = new ArrayList<>(subtree.subtreesView());
+            index = 0;
+            fence = subtrees.size();
+        }
+        boolean prefixStarted = head != null || walkNext != null;
+        int remaining = fence - index;
+        if (remaining == 0 || (!prefixStarted && remaining == 1)) {
+            return null;
+        }
+        int mid = index + remaining / 2;
+        long prefixSize;
+        if (sized) {
+            long suffixSize = 0;
+            for (int i = mid; i < fence; i++) {
+                suffixSize += subtrees.get(i).size();
+            }
+            prefixSize = estimatedSize - suffixSize;
+            estimatedSize = suffixSize;
+        } else {
+            estimatedSize >>>= 1;
+            prefixSize = estimatedSize;
+        }
+        TreeNodeSpliterator<T> prefix =
+            new TreeNodeSpliterator<>(head, walkRoot, walkNext, subtrees, index, mid, sized, prefixSize);
+        head = null;
+        walkRoot = null;
+        walkNext = null;
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return sized ? ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED : ORDERED | DISTINCT | NONNULL;
+    }
+}
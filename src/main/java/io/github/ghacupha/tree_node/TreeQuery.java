@@ -0,0 +1,429 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.NullNodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Query over a tree node and its descendants, which selects the tree nodes
+ * matching all of the conditions specified, for example all of the leaves
+ * under a tree node, whose data satisfies a predicate, up to some depth
+ * <p>
+ * The tree is walked once and the walk is pruned by the depth bounds, so
+ * that the descendants below the maximum depth are never reached, and it
+ * terminates as soon as the limit of the tree nodes is found, unless the
+ * results are to be sorted. The tree nodes are returned in a pre ordered
+ * manner unless a comparator is specified
+ * <p>
+ * The query runs on the calling thread, collecting into a plain list, by
+ * default. It may also run on a fork join pool, see {@link #parallel()},
+ * in which case the subtrees are searched as separate tasks as long as the
+ * pool is short of work, and the partial results are joined in pre order.
+ * Once the joined results reach the limit, the tasks searching the
+ * following subtrees are cancelled
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class TreeQuery<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeQuery.class);
+
+    /**
+     * Number of the queued tasks a worker may have, before it stops
+     * splitting the subtrees into separate tasks
+     */
+    private static final int SURPLUS_TASKS = 3;
+
+    private final TreeNode<T> start;
+
+    private Predicate<? super TreeNode<T>> predicate = node -> true;
+
+    private int minDepth;
+
+    private int maxDepth = Integer.MAX_VALUE;
+
+    private boolean leavesOnly;
+
+    private boolean innerNodesOnly;
+
+    private long limit = Long.MAX_VALUE;
+
+    private Comparator<? super TreeNode<T>> comparator;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Creates the query over the tree node specified and its descendants,
+     * which initially matches all of them
+     *
+     * @param start tree node to search from
+     * @throws NullNodeException if the tree node specified is {@code null}
+     */
+    public TreeQuery(TreeNode<T> start) {
+        if (start == null) {
+            throw new NullNodeException("Unable to query the tree: the starting tree node is null");
+        }
+        this.start = start;
+    }
+
+    /**
+     * Adds the condition the tree nodes are to satisfy, in addition to the
+     * conditions added before
+     *
+     * @param predicate condition the tree nodes are to satisfy
+     * @return the current query
+     */
+    public TreeQuery<T> where(Predicate<? super TreeNode<T>> predicate) {
+        Predicate<? super TreeNode<T>> previous = this.predicate;
+        this.predicate = node -> previous.test(node) && predicate.test(node);
+        return this;
+    }
+
+    /**
+     * Adds the condition the data of the tree nodes is to satisfy, in
+     * addition to the conditions added before
+     *
+     * @param predicate condition the data of the tree nodes is to satisfy
+     * @return the current query
+     */
+    public TreeQuery<T> whereData(Predicate<? super T> predicate) {
+        return where(node -> predicate.test(node.data()));
+    }
+
+    /**
+     * Sets the minimum depth of the tree nodes relative to the starting
+     * tree node, which itself is at depth 0
+     *
+     * @param minDepth minimum depth of the tree nodes
+     * @return the current query
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public TreeQuery<T> minDepth(int minDepth) {
+        if (minDepth < 0) {
+            throw new IllegalArgumentException("The depth is negative: " + minDepth);
+        }
+        this.minDepth = minDepth;
+        return this;
+    }
+
+    /**
+     * Sets the maximum depth of the tree nodes relative to the starting
+     * tree node, which itself is at depth 0; the deeper tree nodes are not
+     * visited at all
+     *
+     * @param maxDepth maximum depth of the tree nodes
+     * @return the current query
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public TreeQuery<T> maxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The depth is negative: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Restricts the query to the leaves, e.g. to the tree nodes without
+     * subtrees
+     *
+     * @return the current query
+     */
+    public TreeQuery<T> leavesOnly() {
+        this.leavesOnly = true;
+        this.innerNodesOnly = false;
+        return this;
+    }
+
+    /**
+     * Restricts the query to the inner tree nodes, e.g. to the tree nodes,
+     * which have subtrees
+     *
+     * @return the current query
+     */
+    public TreeQuery<T> innerNodesOnly() {
+        this.innerNodesOnly = true;
+        this.leavesOnly = false;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the tree nodes to return
+     *
+     * @param limit maximum number of the tree nodes to return
+     * @return the current query
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public TreeQuery<T> limit(long limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit is not positive: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Sets the order the tree nodes are to be returned in, instead of the
+     * pre order; the limit is then applied to the sorted tree nodes, so all
+     * of the matching tree nodes are searched
+     *
+     * @param comparator comparator to sort the tree nodes with
+     * @return the current query
+     */
+    public TreeQuery<T> sorted(Comparator<? super TreeNode<T>> comparator) {
+        this.comparator = comparator;
+        return this;
+    }
+
+    /**
+     * Makes the query run on the common fork join pool
+     *
+     * @return the current query
+     */
+    public TreeQuery<T> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes the query run on the fork join pool specified
+     *
+     * @param pool fork join pool to run the query on
+     * @return the current query
+     */
+    public TreeQuery<T> parallel(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Makes the query run on the calling thread, which is the default
+     *
+     * @return the current query
+     */
+    public TreeQuery<T> sequential() {
+        this.pool = null;
+        return this;
+    }
+
+    /**
+     * Runs the query and returns the matching tree nodes
+     *
+     * @return list of the matching tree nodes, in a pre ordered manner
+     * unless a comparator is specified
+     */
+    public List<TreeNode<T>> list() {
+        return execute(limit);
+    }
+
+    /**
+     * Runs the query and returns the first matching tree node, which stops
+     * the search at the first match unless a comparator is specified
+     *
+     * @return first matching tree node; {@code null} if there is none
+     */
+    public TreeNode<T> first() {
+        List<TreeNode<T>> results = execute(1);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Runs the query and returns the number of the matching tree nodes
+     *
+     * @return number of the matching tree nodes
+     */
+    public long count() {
+        return execute(limit).size();
+    }
+
+    private List<TreeNode<T>> execute(long limit) {
+        log.debug("Querying the tree from the node : {}\n\n", start);
+        long searchLimit = comparator == null ? limit : Long.MAX_VALUE;
+        List<TreeNode<T>> results;
+        if (pool == null) {
+            results = new ArrayList<>();
+            collect(start, 0, results, searchLimit, null);
+        } else {
+            results = pool.invoke(new QueryTask(start, 0, searchLimit));
+        }
+        if (comparator != null) {
+            results.sort(comparator);
+            if (results.size() > limit) {
+                results.subList((int) limit, results.size()).clear();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Checks whether the tree node specified matches the query
+     *
+     * @param node  tree node to check
+     * @param depth depth of the tree node relative to the starting tree node
+     * @return {@code true} if the tree node matches the query; {@code false}
+     * otherwise
+     */
+    private boolean matches(TreeNode<T> node, int depth) {
+        if (depth < minDepth) {
+            return false;
+        }
+        if (leavesOnly || innerNodesOnly) {
+            if (node.isLeaf() != leavesOnly) {
+                return false;
+            }
+        }
+        return predicate.test(node);
+    }
+
+    /**
+     * Collects the matching tree nodes of the subtree specified in a pre
+     * ordered manner, walking the sibling and parent references, and stops
+     * as soon as the limit is reached or the task searching the subtree
+     * is cancelled
+     *
+     * @param top      root of the subtree to search
+     * @param topDepth depth of the root of the subtree
+     * @param results  list to collect the matching tree nodes into
+     * @param limit    maximum number of the tree nodes in the list
+     * @param task     task searching the subtree; {@code null} if the
+     *                 query runs on the calling thread
+     * @return {@code false} if the search has been stopped by the limit or
+     * by the cancellation; {@code true} otherwise
+     */
+    private boolean collect(TreeNode<T> top, int topDepth, List<TreeNode<T>> results, long limit, QueryTask task) {
+        TreeNode<T> node = top;
+        int depth = topDepth;
+        while (true) {
+            if (task != null && task.isCancelled()) {
+                return false;
+            }
+            if (matches(node, depth)) {
+                results.add(node);
+                if (results.size() >= limit) {
+                    return false;
+                }
+            }
+            TreeNode<T> next = depth < maxDepth ? node.firstChild() : null;
+            if (next != null) {
+                depth++;
+            } else {
+                while (node != top && (next = node.nextSibling()) == null) {
+                    node = node.parent();
+                    depth--;
+                }
+                if (next == null) {
+                    return true;
+                }
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Task, which searches a subtree, splitting it into the tasks searching
+     * the subtrees of its root while the pool is short of work
+     */
+    private final class QueryTask extends RecursiveTask<List<TreeNode<T>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TreeNode<T> node;
+
+        private final int depth;
+
+        private final long limit;
+
+        /**
+         * Tasks searching the subtrees of the root of the subtree, once forked
+         */
+        private volatile List<QueryTask> subtasks;
+
+        private QueryTask(TreeNode<T> node, int depth, long limit) {
+            this.node = node;
+            this.depth = depth;
+            this.limit = limit;
+        }
+
+        /**
+         * Cancels the current task together with the tasks it has forked
+         */
+        private void stop() {
+            cancel(false);
+            List<QueryTask> tasks = subtasks;
+            if (tasks != null) {
+                for (QueryTask task : tasks) {
+                    task.stop();
+                }
+            }
+        }
+
+        @Override
+        protected List<TreeNode<T>> compute() {
+            List<TreeNode<T>> results = new ArrayList<>();
+            if (node.isLeaf() || depth >= maxDepth || getSurplusQueuedTaskCount() > SURPLUS_TASKS) {
+                collect(node, depth, results, limit, this);
+                return results;
+            }
+            if (matches(node, depth)) {
+                results.add(node);
+                if (results.size() >= limit) {
+                    return results;
+                }
+            }
+            List<QueryTask> tasks = new ArrayList<>();
+            for (TreeNode<T> child = node.firstChild(); child != null; child = child.nextSibling()) {
+                tasks.add(new QueryTask(child, depth + 1, limit));
+            }
+            // forked in the reverse order, so that the tasks are taken back in pre order when joined
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                tasks.get(i).fork();
+            }
+            subtasks = tasks;
+            // the current task may have been cancelled before the forked tasks were published
+            if (isCancelled()) {
+                stop();
+                return results;
+            }
+            // each task is limited on its own, the joined results are limited again
+            for (int i = 0; i < tasks.size(); i++) {
+                if (isCancelled()) {
+                    return results;
+                }
+                for (TreeNode<T> result : tasks.get(i).join()) {
+                    results.add(result);
+                    if (results.size() >= limit) {
+                        // the following subtrees can not contribute to the results
+                        for (int j = i + 1; j < tasks.size(); j++) {
+                            tasks.get(j).stop();
+                        }
+                        return results;
+                    }
+                }
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversion of the data stored in the tree nodes to and from the bytes
+ * kept in a tree snapshot file
+ * <p>
+ * Equal data objects are expected to be encoded to equal bytes, so that the
+ * tree snapshot is searched by comparing the bytes without decoding them
+ *
+ * @param <T> type of the data stored in the tree nodes
+ * @see TreeSnapshotWriter
+ * @see TreeSnapshotReader
+ */
+public interface TreeSnapshotCodec<T> {
+
+    /**
+     * Encodes the data object into the bytes
+     *
+     * @param data data object to encode, never {@code null}
+     * @return bytes representing the data object
+     */
+    byte[] encode(T data);
+
+    /**
+     * Decodes the data object from the bytes
+     *
+     * @param bytes buffer holding exactly the bytes of the data object
+     *              between its position and limit
+     * @return decoded data object
+     */
+    T decode(ByteBuffer bytes);
+
+    /**
+     * Returns the codec encoding the strings in UTF-8
+     *
+     * @return codec encoding the strings in UTF-8
+     */
+    static TreeSnapshotCodec<String> utf8() {
+        return new TreeSnapshotCodec<String>() {
+            @Override
+            public byte[] encode(String data) {
+                return data.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static io.github.ghacupha.tree_node.TreeSnapshotWriter.COLUMNS;
+import static io.github.ghacupha.tree_node.TreeSnapshotWriter.HEADER_SIZE;
+import static io.github.ghacupha.tree_node.TreeSnapshotWriter.MAGIC;
+import static io.github.ghacupha.tree_node.TreeSnapshotWriter.VERSION;
+
+/**
+ * Reader of the tree snapshot files written by {@link TreeSnapshotWriter}
+ * <p>
+ * The file is memory mapped rather than read, so that opening it only takes
+ * checking its header and the bounds of the data bytes, and the tree nodes
+ * are served straight from the mapped pages, which are shared by all of the
+ * processes reading the same file. The
+ * tree nodes are identified by their numbers in a pre ordered manner, the root
+ * being {@code 0}, the same way {@link FrozenTree} does. Methods accepting a
+ * tree node number throw {@link IndexOutOfBoundsException} if the number is
+ * out of the range {@code [0, size())}
+ * <p>
+ * The reader may be used by several threads at once
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class TreeSnapshotReader<T> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeSnapshotReader.class);
+
+    /**
+     * Number returned in place of the missing tree node
+     */
+    public static final int NO_NODE = -1;
+
+    private final TreeSnapshotCodec<T> codec;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Number of the tree nodes
+     */
+    private final int size;
+
+    /**
+     * Offsets of the columns within the file
+     */
+    private final int parents;
+    private final int subtreeEnds;
+    private final int levels;
+    private final int dataOffsets;
+    private final int dataLengths;
+
+    private TreeSnapshotReader(TreeSnapshotCodec<T> codec, FileChannel channel) throws IOException {
+        this.codec = codec;
+        this.channel = channel;
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+            throw new IOException("The file is not a tree snapshot");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("The file is not a tree snapshot");
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported tree snapshot version " + version);
+        }
+        size = buffer.getInt(2 * Integer.BYTES);
+        if (size <= 0 || HEADER_SIZE + (long) COLUMNS * size * Integer.BYTES > fileSize) {
+            throw new IOException("The tree snapshot is truncated");
+        }
+        parents = HEADER_SIZE;
+        subtreeEnds = parents + size * Integer.BYTES;
+        levels = subtreeEnds + size * Integer.BYTES;
+        dataOffsets = levels + size * Integer.BYTES;
+        dataLengths = dataOffsets + size * Integer.BYTES;
+        long dataStart = dataLengths + (long) size * Integer.BYTES;
+        for (int node = 0; node < size; node++) {
+            int length = column(dataLengths, node);
+            if (length < 0) {
+                if (length != -1) {
+                    throw new IOException("The tree snapshot is corrupt: invalid data length of the tree node " + node);
+                }
+                continue;
+            }
+            int offset = column(dataOffsets, node);
+            if (offset < dataStart || (long) offset + length > fileSize) {
+                throw new IOException("The tree snapshot is corrupt: data of the tree node " + node + " is out of the file");
+            }
+        }
+    }
+
+    /**
+     * Opens the tree snapshot file
+     *
+     * @param file  tree snapshot file
+     * @param codec codec decoding the data of the tree nodes
+     * @param <T>   type of the data stored in the tree nodes
+     * @return reader of the tree snapshot file
+     * @throws IOException if an I/O error occurs or the file is not a tree
+     *                     snapshot of the supported version
+     */
+    public static <T> TreeSnapshotReader<T> open(Path file, TreeSnapshotCodec<T> codec) throws IOException {
+        log.debug("Opening the tree snapshot {}", file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new TreeSnapshotReader<>(codec, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of the tree nodes in the snapshot
+     *
+     * @return number of the tree nodes in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the tree nodes in the subtree of the specified
+     * tree node, including that tree node itself
+     *
+     * @param node number of the tree node
+     * @return number of the tree nodes in the subtree of the tree node
+     */
+    public int size(int node) {
+        return subtreeEnd(checkNode(node)) - node;
+    }
+
+    /**
+     * Returns the height of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return height of the tree node
+     */
+    public int height(int node) {
+        int level = level(node);
+        int maxLevel = level;
+        for (int i = node + 1, end = subtreeEnd(node); i < end; i++) {
+            maxLevel = Math.max(maxLevel, column(levels, i));
+        }
+        return maxLevel - level;
+    }
+
+    /**
+     * Returns the level of the specified tree node, the root being at level {@code 0}
+     *
+     * @param node number of the tree node
+     * @return level of the tree node
+     */
+    public int level(int node) {
+        return column(levels, checkNode(node));
+    }
+
+    /**
+     * Returns the parent of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the parent; {@link #NO_NODE} for the root
+     */
+    public int parent(int node) {
+        return column(parents, checkNode(node));
+    }
+
+    /**
+     * Returns the first subtree of the specified tree node
+     *
+     * @param node number of the tree node
+     * @return number of the first subtree; {@link #NO_NODE} for a leaf
+     */
+    public int firstChild(int node) {
+        return subtreeEnd(checkNode(node)) > node + 1 ? node + 1 : NO_NODE;
+    }
+
+    /**
+     * Returns the subtree of the specified tree node parent, which follows
+     * that tree node
+     *
+     * @param node number of the tree node
+     * @return number of the next sibling; {@link #NO_NODE} if there is none
+     */
+    public int nextSibling(int node) {
+        int parent = parent(node);
+        if (parent == NO_NODE) {
+            return NO_NODE;
+        }
+        int next = subtreeEnd(node);
+        return next < subtreeEnd(parent) ? next : NO_NODE;
+    }
+
+    /**
+     * Checks whether the specified tree node is a leaf
+     *
+     * @param node number of the tree node
+     * @return {@code true} if the tree node has no subtrees; {@code false} otherwise
+     */
+    public boolean isLeaf(int node) {
+        return firstChild(node) == NO_NODE;
+    }
+
+    /**
+     * Returns the data stored in the specified tree node, decoding it from
+     * the mapped bytes
+     *
+     * @param node number of the tree node
+     * @return data stored in the tree node
+     */
+    public T data(int node) {
+        int length = column(dataLengths, checkNode(node));
+        if (length < 0) {
+            return null;
+        }
+        int offset = column(dataOffsets, node);
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(offset + length).position(offset);
+        return codec.decode(bytes.slice());
+    }
+
+    /**
+     * Searches the tree node, which has the specified data, within the
+     * snapshot and returns the first occurrence of it
+     *
+     * @param data data to find the tree node with
+     * @return number of the first tree node with the data; {@link #NO_NODE} if there is none
+     */
+    public int find(T data) {
+        return find(0, data);
+    }
+
+    /**
+     * Searches the tree node, which has the specified data, within the
+     * subtree of the specified tree node and returns the first occurrence of it
+     * <p>
+     * The data is encoded once and compared with the mapped bytes of the tree
+     * nodes, which are never decoded
+     *
+     * @param node number of the tree node to start the search from
+     * @param data data to find the tree node with
+     * @return number of the first tree node with the data; {@link #NO_NODE} if there is none
+     */
+    public int find(int node, T data) {
+        byte[] bytes = data == null ? null : codec.encode(data);
+        for (int i = checkNode(node), end = subtreeEnd(node); i < end; i++) {
+            if (matches(i, bytes)) {
+                return i;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Searches all of the tree nodes, which have the specified data, within
+     * the snapshot
+     *
+     * @param data data to find the tree nodes with
+     * @return numbers of the tree nodes with the data in an ascending order
+     */
+    public int[] findAll(T data) {
+        byte[] bytes = data == null ? null : codec.encode(data);
+        int[] found = new int[8];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (matches(i, bytes)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count << 1);
+                }
+                found[count++] = i;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Traverses the subtree of the specified tree node in a pre ordered manner
+     * and performs the action on the number of each tree node
+     *
+     * @param node   number of the tree node to start the traversal from
+     * @param action action to perform on each tree node number
+     */
+    public void traversePreOrder(int node, IntConsumer action) {
+        for (int i = checkNode(node), end = subtreeEnd(node); i < end; i++) {
+            action.accept(i);
+        }
+    }
+
+    /**
+     * Closes the file; the mapping itself is released once the reader is
+     * garbage collected
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Checks whether the mapped data bytes of the tree node equal the bytes specified
+     */
+    private boolean matches(int node, byte[] bytes) {
+        int length = column(dataLengths, node);
+        if (bytes == null || length != bytes.length) {
+            return bytes == null && length < 0;
+        }
+        int offset = column(dataOffsets, node);
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int subtreeEnd(int node) {
+        return column(subtreeEnds, node);
+    }
+
+    private int column(int column, int node) {
+        return buffer.getInt(column + node * Integer.BYTES);
+    }
+
+    /**
+     * Checks the specified tree node number is within the snapshot
+     */
+    private int checkNode(int node) {
+        if (node < 0 || node >= size) {
+            throw new IndexOutOfBoundsException("Tree node " + node + " is out of the tree snapshot of size " + size);
+        }
+        return node;
+    }
+}
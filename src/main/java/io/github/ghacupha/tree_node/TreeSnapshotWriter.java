@@ -0,0 +1,197 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer of the tree snapshot files, which are read by {@link TreeSnapshotReader}
+ * <p>
+ * The file starts with a header of the format marker, the format version and
+ * the number of the tree nodes, followed by the columns of the tree nodes
+ * numbered in a pre ordered manner, so that the descendants of each tree node
+ * follow it immediately:
+ * <ul>
+ * <li>number of the parent, {@code -1} for the root;</li>
+ * <li>number following the last descendant;</li>
+ * <li>level;</li>
+ * <li>offset of the data bytes within the file;</li>
+ * <li>length of the data bytes, {@code -1} for the {@code null} data.</li>
+ * </ul>
+ * Each column is an array of big endian {@code int}s. The data bytes of the
+ * tree nodes follow the columns. The size of the file is limited to 2 GB
+ * <p>
+ * The snapshot is written into a temporary file next to the target one,
+ * which is then moved over the target atomically, so that the processes
+ * having the previous snapshot mapped keep reading it intact, and a failed
+ * write never leaves a partial snapshot behind
+ *
+ * @param <T> type of the data stored in the tree nodes
+ */
+public final class TreeSnapshotWriter<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeSnapshotWriter.class);
+
+    /**
+     * Marker of the tree snapshot file format, e.g. "TREE"
+     */
+    static final int MAGIC = 0x54524545;
+
+    /**
+     * Version of the tree snapshot file format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * Number of the columns of the tree nodes
+     */
+    static final int COLUMNS = 5;
+
+    /**
+     * Size of the buffer for writing the columns and the data bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final TreeSnapshotCodec<T> codec;
+
+    /**
+     * Creates the writer encoding the data of the tree nodes with the codec specified
+     *
+     * @param codec codec encoding the data of the tree nodes
+     */
+    public TreeSnapshotWriter(TreeSnapshotCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Writes the tree, which has the specified tree node as root, into the
+     * file, replacing the file if it exists
+     *
+     * @param tree root of the tree to write
+     * @param file file to write the tree into
+     * @throws IOException if an I/O error occurs or the file is to exceed 2 GB
+     */
+    public void write(TreeNode<T> tree, Path file) throws IOException {
+        FrozenTree<T> frozen = tree.freeze();
+        int size = frozen.size();
+        log.debug("Writing the snapshot of {} tree nodes into {}", size, file);
+        long dataStart = HEADER_SIZE + (long) COLUMNS * size * Integer.BYTES;
+        if (dataStart > Integer.MAX_VALUE) {
+            throw new IOException("The tree of " + size + " tree nodes is too large for a snapshot");
+        }
+        Path target = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            write(frozen, dataStart, temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the frozen tree into the new file specified and forces it to
+     * the storage, so that it is complete before it replaces the target file
+     */
+    private void write(FrozenTree<T> frozen, long dataStart, Path file) throws IOException {
+        int size = frozen.size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            // the data bytes are written first, as their offsets and lengths make up the columns
+            int[] offsets = new int[size];
+            int[] lengths = new int[size];
+            long position = dataStart;
+            channel.position(position);
+            for (int node = 0; node < size; node++) {
+                T data = frozen.data(node);
+                if (data == null) {
+                    lengths[node] = -1;
+                    continue;
+                }
+                byte[] bytes = codec.encode(data);
+                if (position + bytes.length > Integer.MAX_VALUE) {
+                    throw new IOException("The snapshot of the tree exceeds 2 GB");
+                }
+                offsets[node] = (int) position;
+                lengths[node] = bytes.length;
+                position += bytes.length;
+                if (bytes.length > buffer.remaining()) {
+                    flush(channel, buffer);
+                }
+                if (bytes.length > buffer.remaining()) {
+                    ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                } else {
+                    buffer.put(bytes);
+                }
+            }
+            flush(channel, buffer);
+            channel.position(0);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size);
+            for (int node = 0; node < size; node++) {
+                buffer = putInt(channel, buffer, frozen.parent(node));
+            }
+            for (int node = 0; node < size; node++) {
+                buffer = putInt(channel, buffer, node + frozen.size(node));
+            }
+            for (int node = 0; node < size; node++) {
+                buffer = putInt(channel, buffer, frozen.level(node));
+            }
+            for (int node = 0; node < size; node++) {
+                buffer = putInt(channel, buffer, offsets[node]);
+            }
+            for (int node = 0; node < size; node++) {
+                buffer = putInt(channel, buffer, lengths[node]);
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    private static ByteBuffer putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush(channel, buffer);
+        }
+        return buffer.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,434 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * Iterative traversal engine shared by the {@link TreeNode} implementations
+ * <p>
+ * The traversals move between the nodes through {@link TreeNode#firstChild()},
+ * {@link TreeNode#nextSibling()} and the parent references, keeping neither the
+ * call stack nor an explicit stack, so that the depth of a tree is only limited
+ * by the available heap and a traversal allocates nothing
+ * <p>
+ * The level ordered traversals are the exception, they keep a single queue
+ * holding at most two levels of the tree at a time
+ */
+final class TreeTraversal {
+
+    private TreeTraversal() {
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the node specified
+     * and performs the traversal action on each traversed tree node
+     * <p>
+     * The action is asked whether it is incomplete before each node is visited;
+     * the traversal terminates at the first node reached after the action
+     * completes
+     *
+     * @param start  node to start the traversal from
+     * @param action action, which is to be performed on each tree node
+     * @param <T>    type of the data stored in the tree nodes
+     */
+    static <T> void preOrder(TreeNode<T> start, TraversalAction<TreeNode<T>> action) {
+        preOrder(start, TreeVisitor.of(action));
+    }
+
+    /**
+     * Traverses the tree in a pre ordered manner starting from the node specified
+     * and calls the visitor on each traversed tree node, leaving out the
+     * descendants of the nodes the visitor skips and stopping as soon as the
+     * visitor terminates the traversal
+     *
+     * @param start   node to start the traversal from
+     * @param visitor visitor, which is to be called on each tree node
+     * @param <T>     type of the data stored in the tree nodes
+     */
+    static <T> void preOrder(TreeNode<T> start, TreeVisitor<TreeNode<T>> visitor) {
+        if (visitor.visit(start) != TraversalControl.CONTINUE) {
+            return;
+        }
+        TreeNode<T> node = start.firstChild();
+        while (node != null) {
+            TraversalControl control = visitor.visit(node);
+            if (control == TraversalControl.TERMINATE) {
+                return;
+            }
+            node = nextPreOrdered(start, node, control == TraversalControl.CONTINUE);
+        }
+    }
+
+    /**
+     * Traverses the tree in a post ordered manner starting from the node specified
+     * and performs the traversal action on each traversed tree node
+     * <p>
+     * The action is asked whether it is incomplete before each node is entered;
+     * a node, which has been entered, is always performed on after its subtrees
+     *
+     * @param start  node to start the traversal from
+     * @param action action, which is to be performed on each tree node
+     * @param <T>    type of the data stored in the tree nodes
+     */
+    static <T> void postOrder(TreeNode<T> start, TraversalAction<TreeNode<T>> action) {
+        if (!action.isIncomplete()) {
+            return;
+        }
+        TreeNode<T> node = enterDeepest(start, action);
+        while (node != start) {
+            // the neighbours are read before the action is allowed to change the node
+            TreeNode<T> parent = node.parent();
+            TreeNode<T> sibling = node.nextSibling();
+            action.perform(node);
+            while (sibling != null && !action.isIncomplete()) {
+                sibling = sibling.nextSibling();
+            }
+            node = sibling == null ? parent : enterDeepest(sibling, action);
+        }
+        action.perform(start);
+    }
+
+    /**
+     * Traverses the tree in a post ordered manner starting from the node specified
+     * and calls the visitor on each traversed tree node after its subtrees
+     * <p>
+     * The visitor is asked through {@link TreeVisitor#enter(TreeNode)} whether
+     * each node is to be entered; a skipped node is left out together with its
+     * descendants. The traversal stops as soon as either of the calls returns
+     * {@link TraversalControl#TERMINATE}
+     *
+     * @param start   node to start the traversal from
+     * @param visitor visitor, which is to be called on each tree node
+     * @param <T>     type of the data stored in the tree nodes
+     */
+    static <T> void postOrder(TreeNode<T> start, TreeVisitor<TreeNode<T>> visitor) {
+        if (visitor.enter(start) != TraversalControl.CONTINUE) {
+            return;
+        }
+        TreeNode<T> node = start;
+        TreeNode<T> candidate = start.firstChild();
+        while (true) {
+            while (candidate != null) {
+                TraversalControl control = visitor.enter(candidate);
+                if (control == TraversalControl.TERMINATE) {
+                    return;
+                }
+                if (control == TraversalControl.CONTINUE) {
+                    break;
+                }
+                candidate = candidate.nextSibling();
+            }
+            if (candidate != null) {
+                node = candidate;
+                candidate = node.firstChild();
+                continue;
+            }
+            // the neighbours are read before the visitor is allowed to change the node
+            TreeNode<T> parent = node.parent();
+            TreeNode<T> sibling = node.nextSibling();
+            if (visitor.visit(node) == TraversalControl.TERMINATE || node == start) {
+                return;
+            }
+            node = parent;
+            candidate = sibling;
+        }
+    }
+
+    /**
+     * Traverses the tree in a level ordered (breadth first) manner starting
+     * from the node specified and calls the visitor on each traversed tree
+     * node, leaving out the descendants of the nodes the visitor skips and
+     * stopping as soon as the visitor terminates the traversal
+     *
+     * @param start   node to start the traversal from
+     * @param visitor visitor, which is to be called on each tree node
+     * @param <T>     type of the data stored in the tree nodes
+     */
+    static <T> void levelOrder(TreeNode<T> start, TreeVisitor<TreeNode<T>> visitor) {
+        Queue<TreeNode<T>> queue = new ArrayDeque<>();
+        queue.add(start);
+        TreeNode<T> node;
+        while ((node = queue.poll()) != null) {
+            TraversalControl control = visitor.visit(node);
+            if (control == TraversalControl.TERMINATE) {
+                return;
+            }
+            if (control == TraversalControl.CONTINUE) {
+                enqueueSubtrees(node, queue);
+            }
+        }
+    }
+
+    /**
+     * Appends the subtrees of the node specified to the queue, following
+     * the sibling references
+     *
+     * @param node  node whose subtrees are appended
+     * @param queue queue to append the subtrees to
+     * @param <T>   type of the data stored in the tree nodes
+     */
+    private static <T> void enqueueSubtrees(TreeNode<T> node, Queue<TreeNode<T>> queue) {
+        for (TreeNode<T> child = node.firstChild(); child != null; child = child.nextSibling()) {
+            queue.add(child);
+        }
+    }
+
+    /**
+     * Returns the first proper descendant of the node specified, in a pre
+     * ordered manner, which matches the predicate
+     *
+     * @param start     node whose proper descendants are searched
+     * @param predicate condition the searched node is to satisfy
+     * @param <T>       type of the data stored in the tree nodes
+     * @return first matching proper descendant; {@code null} if there is none
+     */
+    static <T> TreeNode<T> findDescendant(TreeNode<T> start, Predicate<? super TreeNode<T>> predicate) {
+        TreeNode<T> node = start.firstChild();
+        while (node != null) {
+            if (predicate.test(node)) {
+                return node;
+            }
+            node = nextPreOrdered(start, node, true);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the height of the node specified, e.g. the number of edges
+     * on the longest downward path between that node and a leaf
+     *
+     * @param start node whose height is calculated
+     * @param <T>   type of the data stored in the tree nodes
+     * @return height of the node specified
+     */
+    static <T> int height(TreeNode<T> start) {
+        int height = 0;
+        int depth = 0;
+        TreeNode<T> node = start;
+        while (true) {
+            TreeNode<T> child = node.firstChild();
+            if (child != null) {
+                node = child;
+                height = Math.max(height, ++depth);
+                continue;
+            }
+            TreeNode<T> sibling = null;
+            while (node != start && (sibling = node.nextSibling()) == null) {
+                node = node.parent();
+                depth--;
+            }
+            if (sibling == null) {
+                return height;
+            }
+            node = sibling;
+        }
+    }
+
+    /**
+     * Checks whether the first node specified precedes the second one in a
+     * pre ordered traversal of the tree both of them belong to
+     *
+     * @param node  node, which is checked to precede
+     * @param other node of the same tree, which is checked to follow
+     * @param <T>   type of the data stored in the tree nodes
+     * @return {@code true} if the first node precedes the second one;
+     * {@code false} otherwise
+     */
+    static <T> boolean precedes(TreeNode<T> node, TreeNode<T> other) {
+        int nodeLevel = node.level();
+        int otherLevel = other.level();
+        TreeNode<T> nodeAncestor = node;
+        TreeNode<T> otherAncestor = other;
+        for (int level = nodeLevel; level > otherLevel; level--) {
+            nodeAncestor = nodeAncestor.parent();
+        }
+        for (int level = otherLevel; level > nodeLevel; level--) {
+            otherAncestor = otherAncestor.parent();
+        }
+        if (nodeAncestor == otherAncestor) {
+            // one of the nodes is the ancestor of the other one
+            return nodeLevel < otherLevel;
+        }
+        while (nodeAncestor.parent() != otherAncestor.parent()) {
+            nodeAncestor = nodeAncestor.parent();
+            otherAncestor = otherAncestor.parent();
+        }
+        for (TreeNode<T> sibling = nodeAncestor.nextSibling(); sibling != null; sibling = sibling.nextSibling()) {
+            if (sibling == otherAncestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the node, which follows the node specified in a pre ordered
+     * traversal of the subtree of the starting node
+     *
+     * @param start   node the traversal has started from
+     * @param node    proper descendant of the starting node
+     * @param descend whether the subtrees of the node specified are to be
+     *                traversed
+     * @param <T>     type of the data stored in the tree nodes
+     * @return node, which follows the node specified; {@code null} if the
+     * traversal is over
+     */
+    static <T> TreeNode<T> nextPreOrdered(TreeNode<T> start, TreeNode<T> node, boolean descend) {
+        if (descend) {
+            TreeNode<T> child = node.firstChild();
+            if (child != null) {
+                return child;
+            }
+        }
+        while (node != start) {
+            TreeNode<T> sibling = node.nextSibling();
+            if (sibling != null) {
+                return sibling;
+            }
+            node = node.parent();
+        }
+        return null;
+    }
+
+    /**
+     * Enters the node specified and then repeatedly its first subtree, which
+     * the action agrees to enter, and returns the last node entered
+     *
+     * @param node   node to enter
+     * @param action action, which is asked whether it is incomplete before
+     *               each subtree is entered
+     * @param <T>    type of the data stored in the tree nodes
+     * @return last node entered, which is to be performed on first
+     */
+    private static <T> TreeNode<T> enterDeepest(TreeNode<T> node, TraversalAction<TreeNode<T>> action) {
+        while (true) {
+            TreeNode<T> child = node.firstChild();
+            while (child != null && !action.isIncomplete()) {
+                child = child.nextSibling();
+            }
+            if (child == null) {
+                return node;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Base of the level ordered iterators, which detects the structural
+     * modifications of the tree being iterated
+     *
+     * @param <T> type of the data stored in the tree nodes
+     * @param <E> type of the elements returned by the iterator
+     */
+    private abstract static class LevelOrderIteratorBase<T, E> implements Iterator<E> {
+
+        /**
+         * Queue of the tree nodes to be returned next
+         */
+        final Queue<TreeNode<T>> queue = new ArrayDeque<>();
+
+        private final TreeNode<T> start;
+
+        private final TreeNode<T> root;
+
+        private final int expectedModCount;
+
+        LevelOrderIteratorBase(TreeNode<T> start) {
+            this.start = start;
+            this.root = start.root();
+            this.expectedModCount = root.treeModCount;
+            queue.add(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * Throws {@link ConcurrentModificationException} if the tree was
+         * structurally modified since the iteration started and
+         * {@link NoSuchElementException} if the iteration is over
+         */
+        void checkNext() {
+            if (root.treeModCount != expectedModCount || start.root() != root) {
+                throw new ConcurrentModificationException();
+            }
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    /**
+     * Lazy level ordered (breadth first) iterator over the tree nodes
+     *
+     * @param <T> type of the data stored in the tree nodes
+     */
+    static final class LevelOrderIterator<T> extends LevelOrderIteratorBase<T, TreeNode<T>> {
+
+        LevelOrderIterator(TreeNode<T> start) {
+            super(start);
+        }
+
+        @Override
+        public TreeNode<T> next() {
+            checkNext();
+            TreeNode<T> node = queue.remove();
+            enqueueSubtrees(node, queue);
+            return node;
+        }
+    }
+
+    /**
+     * Lazy iterator over the levels of the tree, which returns the tree
+     * nodes of each depth as a single batch
+     * <p>
+     * The queue holds exactly the next level between the calls, each call
+     * drains it into the returned batch while appending the level below
+     *
+     * @param <T> type of the data stored in the tree nodes
+     */
+    static final class LevelsIterator<T> extends LevelOrderIteratorBase<T, List<TreeNode<T>>> {
+
+        LevelsIterator(TreeNode<T> start) {
+            super(start);
+        }
+
+        @Override
+        public List<TreeNode<T>> next() {
+            checkNext();
+            int levelSize = queue.size();
+            List<TreeNode<T>> level = new ArrayList<>(levelSize);
+            for (int i = 0; i < levelSize; i++) {
+                TreeNode<T> node = queue.remove();
+                level.add(node);
+                enqueueSubtrees(node, queue);
+            }
+            return level;
+        }
+    }
+}
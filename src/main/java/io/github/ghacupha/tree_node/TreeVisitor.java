@@ -0,0 +1,82 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+/**
+ * An interface, which defines the visitor called while traversing the tree,
+ * which steers the traversal by means of the {@link TraversalControl}
+ * returned from each call
+ * <p>
+ * Unlike the {@link TraversalAction} the visitor is able to leave out the
+ * descendants of a tree node and to stop the traversal at once, so that a
+ * traversal costs only as much as the tree nodes actually visited
+ *
+ * @param <T> Type of data being carried in the node
+ */
+@FunctionalInterface
+public interface TreeVisitor<T extends TreeNode<?>> {
+
+    /**
+     * Is called on each node, while traversing the tree
+     * <p>
+     * In a pre ordered traversal the node is visited before its subtrees,
+     * so that {@link TraversalControl#SKIP_SUBTREE} leaves out all of its
+     * descendants. In a post ordered traversal the node is visited after
+     * its subtrees, where {@link TraversalControl#SKIP_SUBTREE} has the
+     * same effect as {@link TraversalControl#CONTINUE}
+     *
+     * @param node reference to the current node during tree traversal
+     * @return how the traversal is to proceed
+     */
+    TraversalControl visit(T node);
+
+    /**
+     * Is called on each node before its subtrees are entered in a post
+     * ordered traversal, which allows to leave out the node together with
+     * its descendants by returning {@link TraversalControl#SKIP_SUBTREE}
+     * <p>
+     * Is not called in a pre ordered traversal; enters every node by
+     * default
+     *
+     * @param node reference to the node, which is about to be entered
+     * @return how the traversal is to proceed
+     */
+    default TraversalControl enter(T node) {
+        return TraversalControl.CONTINUE;
+    }
+
+    /**
+     * Adapts the specified traversal action to the visitor, which performs
+     * the action on each visited node and terminates the traversal as soon
+     * as the action reports it is completed
+     *
+     * @param action traversal action to adapt
+     * @param <T>    Type of data being carried in the node
+     * @return visitor, which delegates to the traversal action specified
+     */
+    static <T extends TreeNode<?>> TreeVisitor<T> of(final TraversalAction<T> action) {
+        return node -> {
+            if (!action.isIncomplete()) {
+                return TraversalControl.TERMINATE;
+            }
+            action.perform(node);
+            return action.isIncomplete() ? TraversalControl.CONTINUE : TraversalControl.TERMINATE;
+        };
+    }
+
+}
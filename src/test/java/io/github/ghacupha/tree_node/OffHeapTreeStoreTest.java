@@ -0,0 +1,140 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class OffHeapTreeStoreTest {
+
+	private OffHeapTreeStore<String> store;
+	private int root;
+	private int node1;
+	private int node2;
+	private int node3;
+	private int node4;
+
+	@Before
+	public void setUp() {
+		/*
+		 * root
+		 *  +- node1
+		 *  |  +- node3
+		 *  |  +- node4
+		 *  +- node2
+		 */
+		store = new OffHeapTreeStore<>();
+		root = store.create("root");
+		node1 = store.add(root, "node1");
+		node2 = store.add(root, "node2");
+		node3 = store.add(node1, "node3");
+		node4 = store.add(node1, "node4");
+	}
+
+	private List<String> preOrdered(int node) {
+		List<String> data = new ArrayList<>();
+		store.traversePreOrder(node, mNode -> data.add(store.data(mNode)));
+		return data;
+	}
+
+	@Test
+	public void testStructure() {
+		// Test the tree structure is kept within the store
+		String message = "The tree structure was incorrectly kept within the store";
+		assertEquals(message, 5, store.size());
+		assertEquals(message, 3, store.size(node1));
+		assertEquals(message, Arrays.asList("root", "node1", "node3", "node4", "node2"), preOrdered(root));
+		List<String> postOrdered = new ArrayList<>();
+		store.traversePostOrder(root, node -> postOrdered.add(store.data(node)));
+		assertEquals(message, Arrays.asList("node3", "node4", "node1", "node2", "root"), postOrdered);
+		assertEquals(message, node1, store.parent(node4));
+		assertEquals(message, 2, store.level(node4));
+		assertEquals(message, 2, store.childCount(root));
+		assertTrue(message, store.isLeaf(node2));
+		assertEquals(message, OffHeapTreeStore.NO_NODE, store.parent(root));
+
+		// Test the cursor moves between the tree nodes
+		OffHeapTreeStore<String>.Cursor cursor = store.cursor(root);
+		assertTrue(message, cursor.toFirstChild());
+		assertTrue(message, cursor.toNextSibling());
+		assertEquals(message, "node2", cursor.data());
+		assertFalse(message, cursor.toFirstChild());
+		assertFalse(message, cursor.toNextSibling());
+		assertTrue(message, cursor.toParent());
+		assertEquals(message, root, cursor.node());
+
+		// Test the copy of the tree holds the same tree nodes
+		TreeNode<String> copy = store.toTreeNode(root);
+		assertEquals(message, preOrdered(root), copy.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testMoveAndDrop() {
+		// Test the tree node is moved with its descendants
+		String message = "The tree nodes were incorrectly moved or dropped";
+		store.move(node1, node2);
+		assertEquals(message, Arrays.asList("root", "node2", "node1", "node3", "node4"), preOrdered(root));
+		assertEquals(message, 3, store.level(node4));
+		store.move(node4, root);
+		assertEquals(message, 1, store.level(node4));
+		assertEquals(message, Arrays.asList("root", "node2", "node1", "node3", "node4"), preOrdered(root));
+
+		// Test the dropped tree nodes are removed and their numbers reused
+		store.drop(node2);
+		assertEquals(message, 2, store.size());
+		assertFalse(message, store.contains(node3));
+		assertEquals(message, Arrays.asList("root", "node4"), preOrdered(root));
+		int node5 = store.add(node4, "node5");
+		assertTrue(message, node5 == node1 || node5 == node2 || node5 == node3);
+		assertEquals(message, Arrays.asList("root", "node4", "node5"), preOrdered(root));
+	}
+
+	@Test(expected = TreeNodeException.class)
+	public void testMoveUnderDescendant() {
+		// Test the tree node can not be moved under its own descendant
+		store.move(node1, node3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDroppedNode() {
+		// Test the dropped tree node can not be accessed
+		store.drop(node1);
+		store.data(node4);
+	}
+
+	@Test
+	public void testManyChunks() {
+		// Test the tree nodes spanning several chunks are kept
+		String message = "The tree nodes spanning several chunks were incorrectly kept";
+		int parent = node2;
+		for (int i = 0; i < 100_000; i++) {
+			parent = store.add(i % 2 == 0 ? parent : node2, "node");
+		}
+		assertEquals(message, 100_005, store.size());
+		assertEquals(message, 100_001, store.size(node2));
+		assertEquals(message, "node", store.data(parent));
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PathExpressionTest {
+
+	private static TreeNode<String> buildTree() {
+		PathTreeBuilder builder = new PathTreeBuilder(new ArrayTreeNode<>("Accounts"), "/", ArrayTreeNode::new);
+		builder.add("Assets/Current/Cash/Petty");
+		builder.add("Assets/Current/Receivables/Trade");
+		builder.add("Assets/Current/Receivables/Staff");
+		builder.add("Assets/Fixed/Cash");
+		builder.add("Liabilities/Payables");
+		builder.add("Liabilities/Receivables/Deferred");
+		return builder.root();
+	}
+
+	private static List<String> select(String expression, TreeNode<String> start) {
+		return PathExpression.<String>compile(expression).select(start).stream()
+				.map(node -> node.isRoot() ? node.data() : node.parent().data() + "/" + node.data())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testSelect() {
+		String message = "The path expression selected incorrect tree nodes";
+		TreeNode<String> root = buildTree();
+		assertEquals(message, Arrays.asList("Current/Cash", "Fixed/Cash"), select("Assets/*/Cash", root));
+		assertEquals(message, Arrays.asList("Receivables/Trade", "Receivables/Staff", "Receivables/Deferred"),
+				select("**/Receivables/*", root));
+		assertEquals(message, Arrays.asList("Current/Cash", "Fixed/Cash"), select("**/Cash", root));
+		assertEquals(message, Arrays.asList("Assets/Current", "Assets/Fixed", "Liabilities/Payables", "Liabilities/Receivables"),
+				select("*/*", root));
+		assertEquals(message, Collections.singletonList("Cash/Petty"), select("/Assets/**/**/Petty", root));
+		assertEquals(message, Collections.singletonList("Accounts/Assets"), select("Assets", root));
+		assertEquals(message, Collections.singletonList("Accounts"), select("", root));
+		assertEquals(message, 14, PathExpression.<String>compile("**").select(root).size());
+		assertEquals(message, Collections.emptyList(), select("Liabilities/Cash", root));
+
+		// Test the compiled expression is relative to the starting tree node and may be reused
+		PathExpression<String> cash = PathExpression.compile("*/Cash");
+		assertEquals(message, 2, cash.select(root.find("Assets")).size());
+		assertEquals(message, Collections.emptyList(), cash.select(root));
+
+		// Test the first match
+		assertEquals(message, "Trade", PathExpression.<String>compile("**/Receivables/*").selectFirst(root).data());
+		assertNull(message, PathExpression.<String>compile("Liabilities/Cash").selectFirst(root));
+	}
+
+	@Test
+	public void testPruning() {
+		// Test the subtrees, which can not match, are not visited
+		String message = "The path expression visited the tree nodes, which can not match";
+		AtomicInteger named = new AtomicInteger();
+		PathExpression<String> expression = PathExpression.compile("Assets/Current/Cash", data -> {
+			named.incrementAndGet();
+			return data;
+		});
+		assertEquals(message, 1, expression.select(buildTree()).size());
+		// Assets, Liabilities, Current, Fixed, Cash and Receivables
+		assertEquals(message, 6, named.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManySegments() {
+		PathExpression.compile(String.join("/", Collections.nCopies(64, "*")));
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveTreeNodeTest {
+
+	@Test
+	public void testLongArrayTreeNode() {
+		// Test the primitive values are stored, searched and traversed
+		String message = "The primitive tree node values were incorrectly handled";
+		LongArrayTreeNode root = new LongArrayTreeNode(1L);
+		LongArrayTreeNode node1 = new LongArrayTreeNode(2L, 2);
+		LongArrayTreeNode node2 = new LongArrayTreeNode(3L);
+		TreeNode<Long> node3 = new ArrayTreeNode<>(4L);
+		root.add(node1);
+		root.add(node2);
+		node1.add(node3);
+		assertEquals(message, Long.valueOf(2L), node1.data());
+		assertEquals(message, node1, root.find(2L));
+		assertEquals(message, node3, root.find(4L));
+		assertNull(message, node2.find(4L));
+		List<Long> values = new ArrayList<>();
+		root.traversePreOrder(values::add);
+		assertEquals(message, Arrays.asList(1L, 2L, 4L, 3L), values);
+
+		// Test the data index follows the primitive values
+		root.enableDataIndex();
+		node2.setData(5L);
+		assertEquals(message, 5L, node2.longData());
+		assertEquals(message, node2, root.find(5L));
+		assertEquals(message, node2, root.find(Long.valueOf(5L)));
+		assertNull(message, root.find(3L));
+	}
+
+	@Test
+	public void testIntLeftChildTreeNode() {
+		// Test the primitive values are stored, searched and traversed
+		String message = "The primitive tree node values were incorrectly handled";
+		IntLeftChildTreeNode root = new IntLeftChildTreeNode(1);
+		IntLeftChildTreeNode node1 = new IntLeftChildTreeNode(2);
+		IntLeftChildTreeNode node2 = new IntLeftChildTreeNode(3);
+		root.add(node1);
+		node1.add(node2);
+		node2.setData(Integer.valueOf(7));
+		assertEquals(message, node2, root.find(7));
+		List<Integer> values = new ArrayList<>();
+		root.traversePreOrder(values::add);
+		assertEquals(message, Arrays.asList(1, 2, 7), values);
+	}
+
+	@Test
+	public void testDoubleTreeNodes() {
+		// Test the primitive values are compared the way the boxed ones are
+		String message = "The primitive tree node values were incorrectly compared";
+		DoubleLeftChildTreeNode root = new DoubleLeftChildTreeNode(0.0);
+		DoubleLeftChildTreeNode node1 = new DoubleLeftChildTreeNode(Double.NaN);
+		root.add(node1);
+		assertEquals(message, root, root.find(0.0));
+		assertNull(message, root.find(-0.0));
+		assertEquals(message, node1, root.find(Double.NaN));
+		DoubleArrayTreeNode arrayRoot = new DoubleArrayTreeNode(1.5);
+		arrayRoot.add(new DoubleArrayTreeNode(2.5));
+		double[] sum = new double[1];
+		arrayRoot.traversePreOrder(value -> sum[0] += value);
+		assertEquals(message, 4.0, sum[0], 0.0);
+	}
+
+	@Test
+	public void testSubtreeHashFollowsPrimitiveValues() {
+		// Test the subtree hashes follow the primitive values without the data index
+		String message = "The subtree hashes were not updated on the primitive value change";
+		LongArrayTreeNode root = new LongArrayTreeNode(1L);
+		LongArrayTreeNode node1 = new LongArrayTreeNode(2L);
+		root.add(node1);
+		LongArrayTreeNode copy = new LongArrayTreeNode(1L);
+		copy.add(new LongArrayTreeNode(2L));
+		root.enableSubtreeHash();
+		copy.enableSubtreeHash();
+		assertFalse(message, root.isDataIndexed());
+		long hash = root.subtreeHash();
+		long nodeHash = node1.subtreeHash();
+		node1.setData(3L);
+		assertNotEquals(message, nodeHash, node1.subtreeHash());
+		assertNotEquals(message, hash, root.subtreeHash());
+		List<TreeDiff.Difference<Long>> differences = root.diff(copy);
+		assertEquals(message, 1, differences.size());
+		assertEquals(message, TreeDiff.Kind.CHANGED, differences.get(0).kind());
+		assertEquals(message, node1, differences.get(0).left());
+
+		// Test the same holds for the left child primitive tree nodes
+		IntLeftChildTreeNode intRoot = new IntLeftChildTreeNode(1);
+		IntLeftChildTreeNode intNode1 = new IntLeftChildTreeNode(2);
+		intRoot.add(intNode1);
+		intRoot.enableSubtreeHash();
+		long intHash = intRoot.subtreeHash();
+		intNode1.setData(3);
+		assertNotEquals(message, intHash, intRoot.subtreeHash());
+		intNode1.setData(2);
+		assertEquals(message, intHash, intRoot.subtreeHash());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testSetNullData() {
+		// Test the primitive tree node can not hold null
+		new LongArrayTreeNode(1L).setData((Long) null);
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class StreamingTreeBuilderTest {
+
+	private static List<String> preOrdered(TreeNode<String> tree) {
+		return tree.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testPaths() throws IOException {
+		// Test the tree is built from the materialized paths
+		String message = "The tree was incorrectly built from the paths";
+		PathTreeBuilder builder = new PathTreeBuilder(new ArrayTreeNode<>("Accounts"), "/", ArrayTreeNode::new);
+		TreeNode<String> root = builder.read(new StringReader(
+				"Assets/Current/Cash\n" +
+				"Assets/Current/Receivables\n" +
+				"\n" +
+				"Assets/Fixed\n" +
+				"/Liabilities//Payables\n" +
+				"Assets/Current/Cash/Petty\n"));
+		assertEquals(message,
+				Arrays.asList("Accounts", "Assets", "Current", "Cash", "Petty", "Receivables", "Fixed", "Liabilities", "Payables"),
+				preOrdered(root));
+		assertEquals(message, root.find("Fixed"), builder.add("Assets/Fixed"));
+		assertEquals(message, root, builder.add(""));
+		assertEquals(message, 9, root.size());
+	}
+
+	@Test
+	public void testPathsUnderExistingTree() {
+		// Test the paths are merged into the existing tree of the left child tree nodes
+		String message = "The paths were incorrectly merged into the existing tree";
+		TreeNode<String> root = new LeftChildTreeNode<>("Accounts");
+		TreeNode<String> assets = new LeftChildTreeNode<>("Assets");
+		root.add(assets);
+		PathTreeBuilder builder = new PathTreeBuilder(root, "::", LeftChildTreeNode::new);
+		builder.addAll(Arrays.asList("Assets::Cash", "Equity", "Assets::Bank").iterator());
+		assertEquals(message, Arrays.asList("Accounts", "Assets", "Cash", "Bank", "Equity"), preOrdered(root));
+		assertTrue(message, root.find("Bank") instanceof LeftChildTreeNode);
+	}
+
+	@Test
+	public void testUnsortedPaths() {
+		// Test the unsorted paths find the existing tree nodes under the parents left before
+		String message = "The tree was incorrectly built from the unsorted paths";
+		int pairs = 20_000;
+		PathTreeBuilder builder = new PathTreeBuilder(new ArrayTreeNode<>("Accounts"), "/", ArrayTreeNode::new);
+		for (int i = 0; i < pairs; i++) {
+			builder.add("A/" + i);
+			builder.add("B/" + i);
+		}
+		TreeNode<String> root = builder.root();
+		assertEquals(message, 2 * pairs + 3, root.size());
+		TreeNode<String> a = root.firstChild();
+		TreeNode<String> b = a.nextSibling();
+		assertEquals(message, pairs, a.childCount());
+		assertEquals(message, pairs, b.childCount());
+		assertEquals(message, a.firstChild(), builder.add("A/0"));
+		assertEquals(message, b.firstChild(), builder.add("B/0"));
+		TreeNode<String> added = builder.add("A/0/C");
+		assertEquals(message, a.firstChild(), added.parent());
+		assertEquals(message, added, builder.add("A/0/C"));
+		assertEquals(message, 2 * pairs + 4, root.size());
+	}
+
+	@Test
+	public void testOutline() throws IOException {
+		// Test the tree is built from the indented outline
+		String message = "The tree was incorrectly built from the outline";
+		OutlineTreeBuilder<String> builder = new OutlineTreeBuilder<>(new LeftChildTreeNode<>("Accounts"), LeftChildTreeNode::new);
+		TreeNode<String> root = builder.read(new StringReader(
+				"Assets\n" +
+				"  Current\n" +
+				"    Cash\n" +
+				"\tFixed\n" +
+				"\n" +
+				"Liabilities\n" +
+				"  Cash\n"), 2, String::trim);
+		assertEquals(message,
+				Arrays.asList("Accounts", "Assets", "Current", "Cash", "Fixed", "Liabilities", "Cash"),
+				preOrdered(root));
+		assertEquals(message, 2, root.findAll("Cash").size());
+	}
+
+	@Test
+	public void testOutlineItems() {
+		// Test the tree is built from the depth and data pairs
+		String message = "The tree was incorrectly built from the outline items";
+		List<Map.Entry<Integer, Integer>> items = Arrays.asList(
+				new SimpleEntry<>(0, 1), new SimpleEntry<>(1, 2), new SimpleEntry<>(2, 3), new SimpleEntry<>(0, 4));
+		TreeNode<Integer> root = new OutlineTreeBuilder<>(new ArrayTreeNode<>(0), ArrayTreeNode::new).addAll(items.iterator());
+		assertEquals(message, 5, root.size());
+		assertEquals(message, 3, root.height());
+		assertEquals(message, 2, root.childCount());
+	}
+
+	@Test(expected = TreeNodeException.class)
+	public void testOutlineSkippedLevel() {
+		// Test the outline item skipping a level is rejected
+		OutlineTreeBuilder<String> builder = new OutlineTreeBuilder<>(new ArrayTreeNode<>("root"), ArrayTreeNode::new);
+		builder.add(0, "node1");
+		builder.add(2, "node2");
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import io.github.ghacupha.tree_node.util.TreeNodeException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TreeBuilderTest {
+
+	private static List<String> preOrdered(TreeNode<String> tree) {
+		return tree.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testBuild() {
+		// Test the tree is built from the unordered records
+		String message = "The tree was incorrectly built from the records";
+		TreeNode<String> root = new TreeBuilder<Integer, String>()
+				.add(4, 2, "node4")
+				.add(2, 1, "node2")
+				.add(3, 1, "node3")
+				.add(5, 2, "node5")
+				.add(1, null, "root")
+				.build();
+		assertEquals(message, Arrays.asList("root", "node2", "node4", "node5", "node3"), preOrdered(root));
+		TreeNode<String> node2 = root.find("node2");
+		assertEquals(message, 2, node2.childCount());
+		assertEquals(message, root, node2.parent());
+		assertEquals(message, "node5", node2.childAt(1).data());
+		assertNull(message, node2.childAt(1).nextSibling());
+		assertEquals(message, 2, root.find("node5").level());
+
+		// Test the built tree is an ordinary mutable tree
+		node2.dropSubtree(root.find("node4"));
+		root.add(new ArrayTreeNode<>("node6"));
+		assertEquals(message, Arrays.asList("root", "node2", "node5", "node3", "node6"), preOrdered(root));
+	}
+
+	@Test
+	public void testBuildInParallel() {
+		// Test the tree built in parallel is the same as the one built sequentially
+		String message = "The tree was incorrectly built in parallel";
+		int size = 50_000;
+		List<Integer> order = new ArrayList<>();
+		for (int i = 1; i < size; i++) {
+			order.add(i);
+		}
+		Collections.shuffle(order, new Random(42));
+		Random random = new Random(7);
+		int[] parents = new int[size];
+		for (int i = 1; i < size; i++) {
+			parents[i] = random.nextInt(i);
+		}
+		TreeBuilder<Integer, String> sequential = new TreeBuilder<Integer, String>().add(0, null, "0");
+		TreeBuilder<Integer, String> parallel = new TreeBuilder<Integer, String>().add(0, null, "0").parallel(true);
+		for (int i : order) {
+			sequential.add(i, parents[i], String.valueOf(i));
+			parallel.add(i, parents[i], String.valueOf(i));
+		}
+		TreeNode<String> sequentialRoot = sequential.build();
+		TreeNode<String> parallelRoot = parallel.build();
+		assertEquals(message, size, parallelRoot.size());
+		assertEquals(message, preOrdered(sequentialRoot), preOrdered(parallelRoot));
+	}
+
+	@Test(expected = TreeNodeException.class)
+	public void testOrphan() {
+		// Test the record, whose parent is missing, is rejected
+		new TreeBuilder<Integer, String>().add(1, null, "root").add(2, 3, "orphan").build();
+	}
+
+	@Test(expected = TreeNodeException.class)
+	public void testCycle() {
+		// Test the records forming a cycle of parents are rejected
+		new TreeBuilder<Integer, String>()
+				.add(1, null, "root")
+				.add(2, 1, "node2")
+				.add(3, 4, "node3")
+				.add(4, 3, "node4")
+				.build();
+	}
+
+	@Test(expected = TreeNodeException.class)
+	public void testDuplicate() {
+		// Test the records with the same identifier are rejected
+		new TreeBuilder<Integer, String>().add(1, null, "root").add(2, 1, "node2").add(2, 1, "node2").build();
+	}
+}
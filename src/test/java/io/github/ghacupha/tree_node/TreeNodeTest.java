@@ -23,7 +23,9 @@ import io.github.ghacupha.tree_node.util.TreeNodeException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -186,6 +188,51 @@ public abstract class TreeNodeTest {
 		assertEquals(message, Collections.emptySet(), node6.subtrees());
 	}
 
+	@Test
+	public void testChildAccessors() {
+		// Test the child nodes are correctly accessed by position and by sibling order
+		String message = "Child node was incorrectly determined";
+		assertEquals(message, 3, root.childCount());
+		assertEquals(message, 0, node1.childCount());
+		assertEquals(message, node1, root.childAt(0));
+		assertEquals(message, node9, root.childAt(2));
+		assertEquals(message, node1, root.firstChild());
+		assertNull(message, node6.firstChild());
+		assertEquals(message, node2, node1.nextSibling());
+		assertEquals(message, node8, node7.nextSibling());
+		assertNull(message, node9.nextSibling());
+		assertNull(message, root.nextSibling());
+		node2.dropSubtree(node7);
+		assertEquals(message, node8, node3.nextSibling());
+		assertNull(message, node7.nextSibling());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testChildAtIndexOutOfBoundsException() {
+		// Test exception is thrown if there is no child node at the specified position
+		node2.childAt(3);
+	}
+
+	@Test
+	public void testSubtreesAndSiblingsViews() {
+		// Test the views reflect the changes of the tree
+		String message = "View was expected to reflect the tree, but actually did not";
+		List<TreeNode<String>> mSubtreesView = node2.subtreesView();
+		Collection<TreeNode<String>> mSiblingsView = node3.siblingsView();
+		assertSame(message, mSubtreesView, node2.subtreesView());
+		assertEquals(message, Arrays.asList(node3, node7, node8), mSubtreesView);
+		assertTrue(message, mSubtreesView.contains(node7));
+		assertEquals(message, Arrays.asList(node7, node8), new ArrayList<>(mSiblingsView));
+		node2.dropSubtree(node7);
+		node2.add(anotherNode);
+		assertEquals(message, Arrays.asList(node3, node8, anotherNode), mSubtreesView);
+		assertFalse(message, mSubtreesView.contains(node7));
+		assertEquals(message, Arrays.asList(node8, anotherNode), new ArrayList<>(mSiblingsView));
+		assertTrue(message, root.siblingsView().isEmpty());
+		node2.dropSubtree(node3);
+		assertTrue(message, mSiblingsView.isEmpty());
+	}
+
 	@Test
 	public void testIsLeaf() {
 		// Test if tree node with no subtrees is a leaf
@@ -239,6 +286,33 @@ public abstract class TreeNodeTest {
 		assertEquals(messageEmptyCollectionFoundExpected, Collections.emptySet(), node10.findAll("data"));
 	}
 
+	@Test
+	public void testFindWithDataIndex() {
+		// Test the data index finds the same tree nodes as the traversal while the tree is changed
+		String message = "Tree node was incorrectly found with the data index";
+		node5.enableDataIndex();
+		assertTrue(message, root.isDataIndexed());
+		assertEquals(message, node1, root.find(NODE_DATA_1));
+		assertEquals(message, node5, node2.find(NODE_DATA_1));
+		assertEquals(message, node4, node2.find(NODE_DATA_4));
+		assertEquals(message, node7, root.find(null));
+		assertNull(message, node1.find(NODE_DATA_2));
+		assertEquals(message, new HashSet<>(Arrays.asList(node5, node8)), node2.findAll(NODE_DATA_1));
+		node4.setData(NODE_DATA_1);
+		assertEquals(message, node4, node2.find(NODE_DATA_1));
+		assertEquals(message, node6, node2.find(NODE_DATA_4));
+		node2.dropSubtree(node3);
+		assertTrue(message, node3.isDataIndexed());
+		assertEquals(message, new HashSet<>(Arrays.asList(node1, node8)), root.findAll(NODE_DATA_1));
+		assertEquals(message, new HashSet<>(Arrays.asList(node4, node5)), node3.findAll(NODE_DATA_1));
+		node2.dropSubtree(node3);
+		node9.add(node3);
+		assertTrue(message, node3.isDataIndexed());
+		assertEquals(message, node4, node9.find(NODE_DATA_1));
+		assertEquals(message, node9, root.find(NODE_DATA_4));
+		assertEquals(message, 4, root.findAll(NODE_DATA_1).size());
+	}
+
 	@Test
 	public void testHasSubtree() {
 		// Test if tree node has the specified subtree
@@ -293,6 +367,21 @@ public abstract class TreeNodeTest {
 		assertTrue(messageDropNotExpected, node1.contains(mAnotherNode2));
 	}
 
+	@Test
+	public void testAddAfterDropSubtree() {
+		// Test subtrees added after dropping the last subtree or clearing are reachable
+		String message = "The tree node was expected to have the added subtree, but actually was not";
+		assertTrue(node2.dropSubtree(node8));
+		assertTrue(node2.add(anotherNode));
+		assertTrue(message, node2.hasSubtree(anotherNode));
+		assertTrue(message, root.contains(anotherNode));
+
+		root.clear();
+		TreeNode<String> mAnotherNode = createTreeNode(ANOTHER_NODE_DATA);
+		assertTrue(node2.add(mAnotherNode));
+		assertTrue(message, node2.hasSubtree(mAnotherNode));
+	}
+
 	@Test
 	public void testContains() {
 		// Test if tree node contains the specified tree node
@@ -359,6 +448,12 @@ public abstract class TreeNodeTest {
 		mTreeNodesNotContain3.add(anotherNode);
 		assertFalse(messageContainNotExpected, node3.containsAll(mTreeNodesNotContain3));
 
+		// Nodes sharing ancestors are resolved against the nodes marked earlier
+		assertTrue(messageContainExpected, node3.containsAll(Arrays.asList(node6, node5, node4, node6)));
+		assertFalse(messageContainNotExpected, node3.containsAll(Arrays.asList(node6, node7)));
+		assertFalse(messageContainNotExpected, node3.containsAll(Arrays.asList(node4, node3)));
+		assertFalse(messageContainNotExpected, node2.containsAll(Arrays.asList(node3, null)));
+
 		assertFalse(messageContainNotExpected, root.containsAll(null));
 		assertFalse(messageContainNotExpected, node3.containsAll(Collections.emptyList()));
 	}
@@ -521,6 +616,113 @@ public abstract class TreeNodeTest {
 		assertEquals(message, postOrderedExpected(), mPostOrderedActual);
 	}
 
+	@Test
+	public void testTraverseLevelOrder() {
+		// Test tree level order traversal is correct
+		String message = "Tree was incorrectly traversed in a level ordered manner";
+		List<TreeNode<String>> expected = Arrays.asList(root, node1, node2, node9, node3, node7, node8, node10, node4, node5, node6);
+		final List<TreeNode<String>> actual = new ArrayList<>(11);
+		root.traverseLevelOrder(populateCollectionAction(actual));
+		assertEquals(message, expected, actual);
+
+		actual.clear();
+		root.levelOrderIterator().forEachRemaining(actual::add);
+		assertEquals(message, expected, actual);
+
+		// Test the descendants of a skipped node are not traversed
+		actual.clear();
+		root.visitLevelOrder(node -> {
+			actual.add(node);
+			return node == node2 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+		});
+		assertEquals(message, Arrays.asList(root, node1, node2, node9, node10), actual);
+
+		// Test the levels are returned as batches of nodes of the same depth
+		List<List<TreeNode<String>>> levels = new ArrayList<>();
+		root.levels().forEachRemaining(levels::add);
+		assertEquals(message, Arrays.asList(
+				Collections.singletonList(root),
+				Arrays.asList(node1, node2, node9),
+				Arrays.asList(node3, node7, node8, node10),
+				Arrays.asList(node4, node5),
+				Collections.singletonList(node6)), levels);
+
+		Iterator<List<TreeNode<String>>> node3Levels = node3.levels();
+		assertEquals(message, Collections.singletonList(node3), node3Levels.next());
+		assertEquals(message, Arrays.asList(node4, node5), node3Levels.next());
+		assertEquals(message, Collections.singletonList(node6), node3Levels.next());
+		assertFalse(message, node3Levels.hasNext());
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testLevelOrderIteratorConcurrentModification() {
+		Iterator<TreeNode<String>> iterator = root.levelOrderIterator();
+		iterator.next();
+		node10.add(anotherNode);
+		iterator.next();
+	}
+
+	@Test
+	public void testTraversalControl() {
+		// Test the descendants of a skipped node are not visited in a pre ordered traversal
+		String message = "Tree was incorrectly traversed under the traversal control";
+		final List<TreeNode<String>> visited = new ArrayList<>();
+		root.visitPreOrder(node -> {
+			visited.add(node);
+			return node == node2 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+		});
+		assertEquals(message, Arrays.asList(root, node1, node2, node9, node10), visited);
+
+		// Test no more nodes are visited after the traversal is terminated
+		visited.clear();
+		root.visitPreOrder(node -> {
+			visited.add(node);
+			return node == node5 ? TraversalControl.TERMINATE : TraversalControl.CONTINUE;
+		});
+		assertEquals(message, Arrays.asList(root, node1, node2, node3, node4, node5), visited);
+
+		// Test a node left out on entering is skipped together with its descendants in a post ordered traversal
+		visited.clear();
+		root.visitPostOrder(new TreeVisitor<TreeNode<String>>() {
+			@Override
+			public TraversalControl visit(TreeNode<String> node) {
+				visited.add(node);
+				return TraversalControl.CONTINUE;
+			}
+
+			@Override
+			public TraversalControl enter(TreeNode<String> node) {
+				return node == node3 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+			}
+		});
+		assertEquals(message, Arrays.asList(node1, node7, node8, node2, node10, node9, root), visited);
+
+		visited.clear();
+		root.visitPostOrder(node -> {
+			visited.add(node);
+			return node == node7 ? TraversalControl.TERMINATE : TraversalControl.CONTINUE;
+		});
+		assertEquals(message, Arrays.asList(node1, node4, node6, node5, node3, node7), visited);
+
+		// Test the adapted traversal action terminates the traversal once completed
+		final int[] checks = {0};
+		visited.clear();
+		node2.visitPreOrder(TreeVisitor.of(new TraversalAction<TreeNode<String>>() {
+			@Override
+			public void perform(TreeNode<String> node) {
+				visited.add(node);
+			}
+
+			@Override
+			public boolean isIncomplete() {
+				checks[0]++;
+				return visited.size() < 3;
+			}
+		}));
+		assertEquals(message, Arrays.asList(node2, node3, node4), visited);
+		assertEquals(message, 6, checks[0]);
+	}
+
 	private Collection<TreeNode<String>> postOrderedExpected() {
 		// Populate collection with the tree nodes in a post ordered manner
 		Collection<TreeNode<String>> mPostOrderedExpected = new ArrayList<>(10);
@@ -613,6 +815,11 @@ public abstract class TreeNodeTest {
 		assertEquals(message, node3, node4.commonAncestor(node5));
 		assertEquals(message, root, node1.commonAncestor(node2));
 		assertEquals(message, root, node2.commonAncestor(node2));
+		assertEquals(message, root, node6.commonAncestor(node10));
+		assertEquals(message, root, node4.commonAncestor(node9));
+		assertEquals(message, node2, node3.commonAncestor(node6));
+		assertEquals(message, node2, node6.commonAncestor(node3));
+		assertEquals(message, node2, node6.commonAncestor(node7));
 	}
 
 	@Test(expected = NullNodeException.class)
@@ -640,6 +847,36 @@ public abstract class TreeNodeTest {
 		node2.commonAncestor(root);
 	}
 
+	@Test
+	public void testAncestorIndex() {
+		// Test the lowest common ancestor and the distance were incorrectly determined
+		String message = "The lowest common ancestor or the distance were incorrectly determined";
+		AncestorIndex<String> index = new AncestorIndex<>(node5);
+		assertEquals(message, root, index.lowestCommonAncestor(node6, node10));
+		assertEquals(message, node2, index.lowestCommonAncestor(node6, node8));
+		assertEquals(message, node3, index.lowestCommonAncestor(node3, node6));
+		assertEquals(message, node3, index.lowestCommonAncestor(node6, node3));
+		assertEquals(message, node4, index.lowestCommonAncestor(node4, node4));
+		assertEquals(message, root, index.lowestCommonAncestor(root, node1));
+		assertEquals(message, node2, index.lowestCommonAncestor(Arrays.asList(node6, node4, node7)));
+		assertEquals(message, root, index.lowestCommonAncestor(Arrays.asList(node4, node10, node1)));
+		assertEquals(message, 6, index.distance(node6, node10));
+		assertEquals(message, 3, index.distance(node6, node2));
+		assertEquals(message, 0, index.distance(node7, node7));
+
+		// Test the index is rebuilt after the tree structure has changed
+		node2.dropSubtree(node3);
+		node9.add(node3);
+		assertEquals(message, node9, index.lowestCommonAncestor(node6, node10));
+		assertEquals(message, 4, index.distance(node6, node10));
+		node3.dropSubtree(node5);
+		try {
+			index.lowestCommonAncestor(node6, node10);
+			fail("The tree node removed from the tree was expected to be not found within the index");
+		} catch (NodeNotFoundException ignored) {
+		}
+	}
+
 	@Test
 	public void testIsSiblingOf() {
 		// Test the specified tree node is the sibling of the current tree node
@@ -725,6 +962,121 @@ public abstract class TreeNodeTest {
 		assertSame(message, 4, root.height());
 	}
 
+	@Test
+	public void testDeepTree() {
+		// Test a degenerate tree deeper than the call stack could handle recursively
+		int depth = 100_000;
+		TreeNode<Integer> mRoot = createTreeNode(0);
+		TreeNode<Integer> mLeaf = mRoot;
+		for (int i = 1; i < depth; i++) {
+			TreeNode<Integer> mNode = createTreeNode(i);
+			mLeaf.add(mNode);
+			mLeaf = mNode;
+		}
+		final long[] mPostOrderedCount = {0};
+		mRoot.traversePostOrder(new TraversalAction<TreeNode<Integer>>() {
+			@Override
+			public void perform(TreeNode<Integer> node) {
+				mPostOrderedCount[0]++;
+			}
+
+			@Override
+			public boolean isIncomplete() {
+				return true;
+			}
+		});
+		assertEquals(depth, mPostOrderedCount[0]);
+		long mIteratedCount = 0;
+		for (TreeNode<Integer> ignored : mRoot) {
+			mIteratedCount++;
+		}
+		assertEquals(depth, mIteratedCount);
+		assertEquals(depth, mRoot.size());
+		assertEquals(depth - 1, mRoot.height());
+		assertEquals(mLeaf, mRoot.find(depth - 1));
+		assertEquals(depth - 1, copy(mLeaf).level());
+		assertTrue(mRoot.contains(mLeaf));
+		assertTrue(mRoot.remove(mLeaf));
+		assertFalse(mRoot.contains(mLeaf));
+		assertEquals(depth - 2, mRoot.height());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T object) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(object);
+			}
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				return (T) in.readObject();
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void testSerialization() {
+		// Test the serialized tree node is read back within a copy of its entire tree
+		String message = "The tree node was incorrectly serialized";
+		root.enableSizeAndHeightCache();
+		root.enableDataIndex();
+		TreeNode<String> mNode3 = copy(node3);
+		assertEquals(message, node3.data(), mNode3.data());
+		assertEquals(message, node2.data(), mNode3.parent().data());
+		assertEquals(message, node3.level(), mNode3.level());
+		TreeNode<String> mRoot = mNode3.root();
+		assertEquals(message, root.getClass(), mRoot.getClass());
+		assertEquals(message,
+				root.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList()),
+				mRoot.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList()));
+		assertTrue(message, mRoot.isSizeAndHeightCached());
+		assertTrue(message, mRoot.isDataIndexed());
+		assertEquals(message, 11, mRoot.size());
+		assertEquals(message, 4, mRoot.height());
+		assertEquals(message, node4.data(), mNode3.find(NODE_DATA_4).data());
+
+		// Test the tree nodes of the same tree written together are read back within the same tree
+		List<TreeNode<String>> mNodes = copy(new ArrayList<>(Arrays.asList(node6, root, node6, node10)));
+		assertSame(message, mNodes.get(0), mNodes.get(2));
+		assertSame(message, mNodes.get(1), mNodes.get(0).root());
+		assertSame(message, mNodes.get(1), mNodes.get(3).root());
+	}
+
+	@Test
+	public void testSizeAndHeightCache() {
+		// Test the cached size and height follow the changes of the tree
+		String messageSize = "Cached tree node size was incorrectly calculated";
+		String messageHeight = "Cached tree node height was incorrectly calculated";
+		root.enableSizeAndHeightCache();
+		assertTrue(node6.isSizeAndHeightCached());
+		assertEquals(messageSize, 11, root.size());
+		assertEquals(messageSize, 7, node2.size());
+		assertEquals(messageHeight, 4, root.height());
+		node5.dropSubtree(node6);
+		assertEquals(messageSize, 10, root.size());
+		assertEquals(messageHeight, 3, root.height());
+		node10.add(node6);
+		assertEquals(messageSize, 11, root.size());
+		assertEquals(messageHeight, 3, root.height());
+		TreeNode<String> mNode = createTreeNode(ANOTHER_NODE_DATA);
+		TreeNode<String> mChildNode = createTreeNode(ANOTHER_NODE_DATA);
+		mNode.add(mChildNode);
+		node6.add(mNode);
+		assertTrue(mChildNode.isSizeAndHeightCached());
+		assertEquals(messageSize, 13, root.size());
+		assertEquals(messageHeight, 5, root.height());
+		root.remove(node9);
+		assertEquals(messageSize, 8, root.size());
+		assertEquals(messageHeight, 3, root.height());
+		assertEquals(messageSize, 5, node9.size());
+		assertEquals(messageHeight, 4, node9.height());
+		node2.clear();
+		assertEquals(messageSize, 3, root.size());
+		assertEquals(messageHeight, 1, root.height());
+	}
+
 	@Test
 	public void testLevel() {
 		// Test the specified tree node level is correctly calculated
@@ -735,6 +1087,30 @@ public abstract class TreeNodeTest {
 		assertSame(message, 3, node4.level());
 	}
 
+	@Test
+	public void testLevelAndRootAfterRelinking() {
+		// Test the level and the root are recalculated after the tree node was moved
+		String messageLevel = "Tree node level was incorrectly calculated";
+		String messageRoot = "Root node was incorrectly determined";
+		assertEquals(messageLevel, 4, node6.level());
+		assertEquals(messageRoot, root, node6.root());
+		node2.dropSubtree(node3);
+		assertEquals(messageLevel, 2, node6.level());
+		assertEquals(messageRoot, node3, node6.root());
+		assertEquals(messageLevel, 2, node7.level());
+		node10.add(node3);
+		assertEquals(messageLevel, 5, node6.level());
+		assertEquals(messageRoot, root, node6.root());
+		TreeNode<String> mNewRoot = createTreeNode(ANOTHER_NODE_DATA);
+		mNewRoot.add(root);
+		assertEquals(messageLevel, 6, node6.level());
+		assertEquals(messageRoot, mNewRoot, node4.root());
+		assertEquals(messageLevel, 1, root.level());
+		mNewRoot.dropSubtree(root);
+		assertEquals(messageLevel, 5, node6.level());
+		assertEquals(messageRoot, root, node4.root());
+	}
+
 	@Test
 	public void testClone() {
 		// Test the tree node is correctly cloned
@@ -765,6 +1141,223 @@ public abstract class TreeNodeTest {
 		assertNotEquals(messageNotEqual, mAnotherNode1, mAnotherNode2);
 	}
 
+	@Test
+	public void testFreezeAndThaw() {
+		// Test the frozen tree keeps the structure and the data of the tree
+		String message = "The frozen tree was incorrectly built";
+		FrozenTree<String> frozen = root.freeze();
+		assertEquals(message, root.size(), frozen.size());
+		assertEquals(message, root.height(), frozen.height());
+		List<String> preOrdered = root.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList());
+		List<String> frozenPreOrdered = new ArrayList<>();
+		frozen.traversePreOrder(node -> frozenPreOrdered.add(frozen.data(node)));
+		assertEquals(message, preOrdered, frozenPreOrdered);
+		List<String> postOrdered = root.postOrdered().stream().map(TreeNode::data).collect(Collectors.toList());
+		List<String> frozenPostOrdered = new ArrayList<>();
+		frozen.traversePostOrder(node -> frozenPostOrdered.add(frozen.data(node)));
+		assertEquals(message, postOrdered, frozenPostOrdered);
+		int frozenNode3 = frozen.find(node3.data());
+		assertEquals(message, node3.size(), frozen.size(frozenNode3));
+		assertEquals(message, node3.height(), frozen.height(frozenNode3));
+		assertEquals(message, node3.level(), frozen.level(frozenNode3));
+		assertEquals(message, node3.childCount(), frozen.childCount(frozenNode3));
+		assertEquals(message, node2.data(), frozen.data(frozen.parent(frozenNode3)));
+		assertEquals(message, node4.data(), frozen.data(frozen.firstChild(frozenNode3)));
+		assertEquals(message, node5.data(), frozen.data(frozen.nextSibling(frozen.firstChild(frozenNode3))));
+		assertEquals(message, FrozenTree.NO_NODE, frozen.parent(0));
+		assertEquals(message, FrozenTree.NO_NODE, frozen.find("missing"));
+		assertEquals(message, root.findAll(NODE_DATA_1).size(), frozen.findAll(NODE_DATA_1).length);
+		assertEquals(message, 2, node2.freeze().findAll(NODE_DATA_4).length);
+
+		// Test the frozen tree is not affected by the changes of the tree
+		node2.dropSubtree(node3);
+		assertEquals(message, 11, frozen.size());
+
+		// Test the thawed tree is equal to the frozen one
+		TreeNode<String> thawed = frozen.thaw();
+		assertEquals(message, frozen.size(), thawed.size());
+		assertEquals(message, preOrdered, thawed.preOrdered().stream().map(TreeNode::data).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testSubtreeHash() {
+		// Test the equal trees have equal hashes, whether maintained or not
+		String message = "The subtree hash was incorrectly maintained";
+		TreeNode<String> copy = root.freeze().thaw();
+		long hash = root.subtreeHash();
+		assertEquals(message, hash, copy.subtreeHash());
+		assertNotEquals(message, hash, node2.subtreeHash());
+		root.enableSubtreeHash();
+		assertTrue(message, node6.isSubtreeHashed());
+		assertFalse(message, copy.isSubtreeHashed());
+		assertEquals(message, hash, root.subtreeHash());
+
+		// Test the maintained hashes follow the changes of the data and of the structure
+		node6.setData("changed");
+		assertNotEquals(message, hash, root.subtreeHash());
+		assertEquals(message, root.freeze().thaw().subtreeHash(), root.subtreeHash());
+		node6.setData(NODE_DATA_4);
+		assertEquals(message, hash, root.subtreeHash());
+		node10.add(anotherNode);
+		assertTrue(message, anotherNode.isSubtreeHashed());
+		assertEquals(message, root.freeze().thaw().subtreeHash(), root.subtreeHash());
+		node10.dropSubtree(anotherNode);
+		assertEquals(message, hash, root.subtreeHash());
+		node3.dropSubtree(node5);
+		assertEquals(message, root.freeze().thaw().subtreeHash(), root.subtreeHash());
+		node3.add(node5);
+		assertEquals(message, hash, root.subtreeHash());
+	}
+
+	@Test
+	public void testDiff() {
+		// Test the equal trees have no differences
+		String message = "The differences between the trees were incorrectly found";
+		TreeNode<String> copy = root.freeze().thaw();
+		assertTrue(message, root.diff(copy).isEmpty());
+
+		// Test the changed, added and removed tree nodes are found
+		List<TreeNode<String>> copyNodes = new ArrayList<>(copy.preOrdered());
+		TreeNode<String> copy6 = copyNodes.get(6);
+		TreeNode<String> copy7 = copyNodes.get(7);
+		TreeNode<String> copy10 = copyNodes.get(10);
+		copy6.setData("changed");
+		copyNodes.get(2).dropSubtree(copy7);
+		TreeNode<String> added = new ArrayTreeNode<>("added");
+		copy10.add(added);
+		List<TreeDiff.Difference<String>> differences = root.diff(copy);
+		assertEquals(message, 3, differences.size());
+		assertEquals(message, TreeDiff.Kind.CHANGED, differences.get(0).kind());
+		assertEquals(message, node6, differences.get(0).left());
+		assertEquals(message, copy6, differences.get(0).right());
+		assertEquals(message, TreeDiff.Kind.REMOVED, differences.get(1).kind());
+		assertEquals(message, node7, differences.get(1).left());
+		assertNull(message, differences.get(1).right());
+		assertEquals(message, TreeDiff.Kind.ADDED, differences.get(2).kind());
+		assertNull(message, differences.get(2).left());
+		assertEquals(message, added, differences.get(2).right());
+
+		// Test the tree nodes are paired by their data regardless of their order
+		TreeNode<String> reordered = root.freeze().thaw();
+		TreeNode<String> first = reordered.firstChild();
+		reordered.dropSubtree(first);
+		reordered.add(first);
+		assertTrue(message, root.diff(reordered).isEmpty());
+	}
+
+	@Test
+	public void testIntervalIndex() {
+		// Test the containment checks answered by the nested interval index
+		String message = "The containment was incorrectly determined by the nested interval index";
+		node5.enableIntervalIndex();
+		assertTrue(message, root.isIntervalIndexed());
+		assertTrue(message, root.contains(node6));
+		assertTrue(message, node2.contains(node5));
+		assertFalse(message, node4.contains(node3));
+		assertFalse(message, node3.contains(node3));
+		assertFalse(message, root.contains(anotherNode));
+		assertTrue(message, node2.isAncestorOf(node6));
+		assertFalse(message, node9.isAncestorOf(node6));
+		assertTrue(message, node10.isDescendantOf(node9));
+		assertFalse(message, node10.isDescendantOf(node2));
+		assertTrue(message, node2.containsAll(Arrays.asList(node3, node6, node8)));
+		assertFalse(message, node2.containsAll(Arrays.asList(node3, node10)));
+
+		// Test the intervals follow the changes of the tree
+		node2.dropSubtree(node3);
+		assertTrue(message, node3.isIntervalIndexed());
+		assertFalse(message, root.contains(node6));
+		assertTrue(message, node3.contains(node6));
+		node10.add(node3);
+		assertTrue(message, node3.isIntervalIndexed());
+		assertTrue(message, node9.contains(node6));
+		assertTrue(message, node6.isDescendantOf(node10));
+		assertFalse(message, node2.isAncestorOf(node4));
+		assertTrue(message, root.remove(node5));
+		assertFalse(message, root.contains(node6));
+		assertEquals(message, 9, root.size());
+
+		// Test the tree nodes of the separately indexed trees are never contained
+		TreeNode<String> mAnotherRoot = createTreeNode(ANOTHER_NODE_DATA);
+		TreeNode<String> mAnotherChild = createTreeNode(ANOTHER_NODE_DATA);
+		TreeNode<String> mAnotherGrandChild = createTreeNode(ANOTHER_NODE_DATA);
+		mAnotherRoot.add(mAnotherChild);
+		mAnotherChild.add(mAnotherGrandChild);
+		mAnotherRoot.enableIntervalIndex();
+		assertTrue(message, mAnotherRoot.contains(mAnotherGrandChild));
+		assertTrue(message, node9.contains(node4));
+		assertFalse(message, node4.isDescendantOf(mAnotherRoot));
+		assertFalse(message, node4.isDescendantOf(mAnotherChild));
+		assertFalse(message, mAnotherGrandChild.isDescendantOf(root));
+		assertFalse(message, mAnotherGrandChild.isDescendantOf(node9));
+		assertFalse(message, mAnotherRoot.isAncestorOf(node4));
+		assertFalse(message, root.isAncestorOf(mAnotherChild));
+		assertFalse(message, mAnotherRoot.contains(node4));
+		assertFalse(message, root.contains(mAnotherGrandChild));
+		assertFalse(message, mAnotherRoot.remove(node4));
+		assertFalse(message, root.remove(mAnotherChild));
+		assertEquals(message, 9, root.size());
+		assertEquals(message, 3, mAnotherRoot.size());
+	}
+
+	@Test
+	public void testIntervalIndexWithMutations() {
+		// Test the mutations alternating with the queries keep the indexed containment correct
+		String message = "The containment was incorrectly determined by the nested interval index";
+		root.enableIntervalIndex();
+		List<TreeNode<String>> mAdded = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			TreeNode<String> mNode = createTreeNode(ANOTHER_NODE_DATA);
+			(i % 2 == 0 ? node4 : node10).add(mNode);
+			mAdded.add(mNode);
+			assertTrue(message, root.contains(mNode));
+			assertEquals(message, i % 2 == 0, node2.isAncestorOf(mNode));
+			assertEquals(message, i % 2 != 0, mNode.isDescendantOf(node9));
+		}
+		for (int i = 0; i < mAdded.size(); i++) {
+			TreeNode<String> mNode = mAdded.get(i);
+			assertFalse(message, node1.remove(mNode));
+			assertTrue(message, (i % 2 == 0 ? node2 : node9).remove(mNode));
+			assertFalse(message, root.contains(mNode));
+			assertFalse(message, root.remove(mNode));
+			assertTrue(message, root.contains(node6));
+		}
+		assertTrue(message, root.remove(node3));
+		assertFalse(message, node2.contains(node6));
+		assertFalse(message, node6.isDescendantOf(root));
+		assertTrue(message, node3.isAncestorOf(node6));
+		assertEquals(message, 7, root.size());
+	}
+
+	@Test
+	public void testStream() {
+		// Test the streams return the tree nodes in the pre order
+		String message = "Stream returned incorrect tree nodes";
+		List<TreeNode<String>> mPreOrdered = new ArrayList<>(root.preOrdered());
+		assertEquals(message, mPreOrdered, root.stream().collect(Collectors.toList()));
+		assertEquals(message, mPreOrdered, root.parallelStream().collect(Collectors.toList()));
+		assertEquals(message, 4, node3.stream().count());
+		assertEquals(message, Collections.singletonList(node6), node6.parallelStream().collect(Collectors.toList()));
+		root.enableSizeAndHeightCache();
+		assertEquals(message, 11, root.spliterator().getExactSizeIfKnown());
+		assertEquals(message, mPreOrdered, root.parallelStream().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testSpliteratorSplit() {
+		// Test the spliterator splits along the subtree boundaries
+		root.enableSizeAndHeightCache();
+		Spliterator<TreeNode<String>> mSuffix = root.spliterator();
+		Spliterator<TreeNode<String>> mPrefix = mSuffix.trySplit();
+		assertNotNull(mPrefix);
+		assertEquals(2, mPrefix.estimateSize());
+		assertEquals(9, mSuffix.estimateSize());
+		List<TreeNode<String>> mNodes = new ArrayList<>();
+		mPrefix.forEachRemaining(mNodes::add);
+		assertEquals(Arrays.asList(root, node1), mNodes);
+		assertEquals(0, mPrefix.estimateSize());
+	}
+
 	@Test
 	public void testIteratorNext() {
 		// Test iterator next returns the correct tree node
@@ -873,6 +1466,24 @@ public abstract class TreeNodeTest {
 		assertFalse(messageRemoveExpected, root.contains(node9));
 	}
 
+	@Test
+	public void testIteratorRemoveAfterHasNext() {
+		// Test iterator removes the last tree node after the iteration was exhausted
+		String messageRemoveExpected = "The iterator was expected to remove the tree node, but actually was not";
+		Iterator<TreeNode<String>> mIterator = root.iterator();
+		TreeNode<String> mLastNode = null;
+		while (mIterator.hasNext()) {
+			mLastNode = mIterator.next();
+		}
+		assertEquals(node10, mLastNode);
+		mIterator.remove();
+		assertFalse(messageRemoveExpected, node9.hasSubtree(node10));
+		assertFalse(mIterator.hasNext());
+		mIterator.remove();
+		assertFalse(messageRemoveExpected, root.hasSubtree(node9));
+		assertEquals(9, root.size());
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void testIteratorRemoveIllegalStateException() {
 		// Test exception is thrown if the iterator remove was called prior the iteration start
@@ -0,0 +1,135 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TreeQueryTest {
+
+	private static TreeNode<Integer> buildTree() {
+		// 0 -> (10 -> (5, 50), 20 -> (70 -> (90), 1))
+		return new TreeBuilder<Integer, Integer>()
+				.add(0, null, 0)
+				.add(1, 0, 10)
+				.add(2, 0, 20)
+				.add(3, 1, 5)
+				.add(4, 1, 50)
+				.add(5, 2, 70)
+				.add(6, 2, 1)
+				.add(7, 5, 90)
+				.build();
+	}
+
+	private static List<Integer> data(List<TreeNode<Integer>> nodes) {
+		return nodes.stream().map(TreeNode::data).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testQuery() {
+		String message = "The query returned incorrect tree nodes";
+		TreeNode<Integer> root = buildTree();
+		assertEquals(message, Arrays.asList(0, 10, 5, 50, 20, 70, 90, 1), data(root.query().list()));
+		assertEquals(message, Arrays.asList(50, 90), data(root.query().leavesOnly().whereData(balance -> balance > 10).list()));
+		assertEquals(message, Arrays.asList(5, 50, 1), data(root.query().leavesOnly().maxDepth(2).list()));
+		assertEquals(message, Arrays.asList(5, 50, 70, 90, 1), data(root.query().minDepth(2).list()));
+		assertEquals(message, Arrays.asList(0, 10, 20, 70), data(root.query().innerNodesOnly().list()));
+		assertEquals(message, Arrays.asList(10, 50), data(root.query().whereData(balance -> balance >= 10).limit(2).list()));
+		assertEquals(message, Collections.singletonList(20),
+				data(root.query().where(node -> node.level() == 1).whereData(balance -> balance > 10).list()));
+		assertEquals(message, 4, root.query().leavesOnly().count());
+
+		// Test the query is relative to its starting tree node
+		TreeNode<Integer> node2 = root.find(20);
+		assertEquals(message, Arrays.asList(70, 90, 1), data(node2.query().minDepth(1).list()));
+		assertEquals(message, Collections.singletonList(70), data(node2.query().minDepth(1).maxDepth(1).innerNodesOnly().list()));
+
+		// Test the first match and the sorted results
+		assertEquals(message, Integer.valueOf(70), root.query().whereData(balance -> balance > 60).first().data());
+		assertNull(message, root.query().whereData(balance -> balance > 100).first());
+		Comparator<TreeNode<Integer>> byBalance = Comparator.comparing(TreeNode::data);
+		assertEquals(message, Arrays.asList(90, 70), data(root.query().sorted(byBalance.reversed()).limit(2).list()));
+		assertEquals(message, Integer.valueOf(0), root.query().sorted(byBalance).first().data());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testQueryInvalidLimit() {
+		buildTree().query().limit(0);
+	}
+
+	@Test
+	public void testParallelQuery() {
+		// Test the query run on a fork join pool returns the same tree nodes in the same order
+		String message = "The parallel query returned incorrect tree nodes";
+		int size = 50_000;
+		Random random = new Random(11);
+		TreeBuilder<Integer, Integer> builder = new TreeBuilder<Integer, Integer>().add(0, null, 0);
+		for (int i = 1; i < size; i++) {
+			builder.add(i, random.nextInt(i), i);
+		}
+		TreeNode<Integer> root = builder.build();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			TreeQuery<Integer> query = root.query().whereData(value -> value % 7 == 0).maxDepth(12);
+			List<TreeNode<Integer>> expected = query.list();
+			assertFalse(message, expected.isEmpty());
+			assertEquals(message, expected, query.parallel(pool).list());
+			assertEquals(message, expected.subList(0, 100), query.limit(100).list());
+			assertEquals(message, expected.get(0), query.first());
+			assertEquals(message, expected.subList(0, 100), query.sequential().list());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelQueryTermination() {
+		// Test the parallel query stops searching the following subtrees once the limit is reached
+		String message = "The parallel query did not terminate early";
+		int size = 50_000;
+		Random random = new Random(11);
+		TreeBuilder<Integer, Integer> builder = new TreeBuilder<Integer, Integer>().add(0, null, 0);
+		for (int i = 1; i < size; i++) {
+			builder.add(i, random.nextInt(i), i);
+		}
+		TreeNode<Integer> root = builder.build();
+		AtomicInteger visited = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			TreeQuery<Integer> query = root.query()
+					.where(node -> visited.incrementAndGet() > 0)
+					.whereData(value -> value == 1);
+			TreeNode<Integer> expected = query.first();
+			visited.set(0);
+			assertEquals(message, expected, query.parallel(pool).first());
+			assertTrue(message, visited.get() < size / 2);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * tree-node - Implementation of tree structures in java
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.tree_node;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TreeSnapshotTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		// Test the tree snapshot serves the tree it was written from
+		String message = "The tree snapshot was incorrectly written or read";
+		TreeNode<String> root = new ArrayTreeNode<>("root");
+		TreeNode<String> node1 = new ArrayTreeNode<>("node1");
+		TreeNode<String> node2 = new LeftChildTreeNode<>("node2");
+		TreeNode<String> node3 = new ArrayTreeNode<>(null);
+		TreeNode<String> node4 = new ArrayTreeNode<>("node1");
+		root.add(node1);
+		root.add(node2);
+		node1.add(node3);
+		node1.add(node4);
+		Path file = folder.newFile().toPath();
+		new TreeSnapshotWriter<>(TreeSnapshotCodec.utf8()).write(root, file);
+		try (TreeSnapshotReader<String> reader = TreeSnapshotReader.open(file, TreeSnapshotCodec.utf8())) {
+			assertEquals(message, 5, reader.size());
+			List<String> data = new ArrayList<>();
+			reader.traversePreOrder(0, node -> data.add(reader.data(node)));
+			assertEquals(message, Arrays.asList("root", "node1", null, "node1", "node2"), data);
+			assertEquals(message, 3, reader.size(1));
+			assertEquals(message, 2, reader.height(0));
+			assertEquals(message, 2, reader.level(3));
+			assertEquals(message, 1, reader.parent(3));
+			assertEquals(message, TreeSnapshotReader.NO_NODE, reader.parent(0));
+			assertEquals(message, 2, reader.firstChild(1));
+			assertEquals(message, 3, reader.nextSibling(2));
+			assertEquals(message, 4, reader.nextSibling(1));
+			assertEquals(message, TreeSnapshotReader.NO_NODE, reader.nextSibling(3));
+			assertTrue(message, reader.isLeaf(4));
+			assertEquals(message, 1, reader.find("node1"));
+			assertEquals(message, TreeSnapshotReader.NO_NODE, reader.find(4, "node1"));
+			assertEquals(message, 2, reader.find(null));
+			assertEquals(message, TreeSnapshotReader.NO_NODE, reader.find("node5"));
+			assertArrayEquals(message, new int[]{1, 3}, reader.findAll("node1"));
+		}
+	}
+
+	@Test
+	public void testReplaceMappedSnapshot() throws IOException {
+		// Test the snapshot is replaced atomically, leaving the mapped previous one intact
+		String message = "The tree snapshot was incorrectly replaced";
+		TreeNode<String> root = new ArrayTreeNode<>("root");
+		root.add(new ArrayTreeNode<>("node1"));
+		Path file = folder.newFolder().toPath().resolve("tree.snapshot");
+		TreeSnapshotWriter<String> writer = new TreeSnapshotWriter<>(TreeSnapshotCodec.utf8());
+		writer.write(root, file);
+		try (TreeSnapshotReader<String> reader = TreeSnapshotReader.open(file, TreeSnapshotCodec.utf8())) {
+			root.add(new ArrayTreeNode<>("node2"));
+			writer.write(root, file);
+			assertEquals(message, 2, reader.size());
+			assertEquals(message, "node1", reader.data(1));
+		}
+		try (TreeSnapshotReader<String> reader = TreeSnapshotReader.open(file, TreeSnapshotCodec.utf8())) {
+			assertEquals(message, 3, reader.size());
+			assertEquals(message, "node2", reader.data(2));
+		}
+		try (Stream<Path> files = Files.list(file.getParent())) {
+			assertEquals(message, 1, files.count());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadCorruptSnapshot() throws IOException {
+		// Test the data offset beyond the end of the file is rejected on opening
+		TreeNode<String> root = new ArrayTreeNode<>("root");
+		root.add(new ArrayTreeNode<>("node1"));
+		Path file = folder.newFile().toPath();
+		new TreeSnapshotWriter<>(TreeSnapshotCodec.utf8()).write(root, file);
+		byte[] bytes = Files.readAllBytes(file);
+		// the data offset column of the second tree node follows the header and 3 columns of 2 tree nodes, and the first offset
+		ByteBuffer.wrap(bytes).putInt(TreeSnapshotWriter.HEADER_SIZE + 7 * Integer.BYTES, bytes.length);
+		Files.write(file, bytes);
+		TreeSnapshotReader.open(file, TreeSnapshotCodec.utf8()).close();
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadNotSnapshot() throws IOException {
+		// Test the file, which is not a tree snapshot, is rejected
+		Path file = folder.newFile().toPath();
+		Files.write(file, "not a tree snapshot".getBytes("UTF-8"));
+		TreeSnapshotReader.open(file, TreeSnapshotCodec.utf8());
+	}
+}
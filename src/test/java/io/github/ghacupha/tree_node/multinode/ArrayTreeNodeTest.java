@@ -21,6 +21,18 @@ import io.github.ghacupha.tree_node.ArrayTreeNode;
 import io.github.ghacupha.tree_node.TreeNode;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author shell
  * @version 1.0.0
@@ -63,4 +75,100 @@ public class ArrayTreeNodeTest extends MultiTreeNodeTest {
 		new ArrayTreeNode<>(ROOT_DATA, incorrectBranchingFactor);
 	}
 
+	@Test
+	public void testSubtreeIndexAfterDrop() {
+		// Test the subtrees are found and dropped correctly after the subtrees array was shifted
+		ArrayTreeNode<String> mParent = new ArrayTreeNode<>(ROOT_DATA, 2);
+		ArrayTreeNode<String> mSubtree1 = new ArrayTreeNode<>(NODE_DATA_1);
+		ArrayTreeNode<String> mSubtree2 = new ArrayTreeNode<>(NODE_DATA_2);
+		ArrayTreeNode<String> mSubtree3 = new ArrayTreeNode<>(NODE_DATA_3);
+		ArrayTreeNode<String> mSubtree4 = new ArrayTreeNode<>(NODE_DATA_4);
+		mParent.add(mSubtree1);
+		mParent.addSubtrees(Arrays.asList(mSubtree2, mSubtree3));
+		mParent.add(mSubtree4);
+		assertTrue(mParent.dropSubtree(mSubtree2));
+		assertFalse(mParent.hasSubtree(mSubtree2));
+		assertFalse(mParent.dropSubtree(mSubtree2));
+		assertTrue(mParent.hasSubtree(mSubtree4));
+		assertTrue(mParent.dropSubtree(mSubtree4));
+		assertTrue(mParent.dropSubtree(mSubtree1));
+		assertTrue(mParent.hasSubtree(mSubtree3));
+		mParent.add(mSubtree2);
+		assertEquals(Arrays.asList(mSubtree3, mSubtree2), Arrays.asList(mParent.subtrees().toArray()));
+		mParent.clear();
+		assertFalse(mParent.hasSubtree(mSubtree3));
+		assertFalse(mParent.dropSubtree(mSubtree2));
+	}
+
+	/**
+	 * Tree node providing its own serialized form, which delegates to the
+	 * compact serialized form of the tree
+	 */
+	private static class ReplacingTreeNode extends ArrayTreeNode<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		private static int replacements;
+
+		private ReplacingTreeNode(String data) {
+			super(data);
+		}
+
+		@Override
+		protected Object writeReplace() throws ObjectStreamException {
+			replacements++;
+			return super.writeReplace();
+		}
+	}
+
+	@Test
+	public void testSerializationOfMixedTree() throws IOException, ClassNotFoundException {
+		// Test the tree nodes unlike the ones written before keep their classes
+		TreeNode<String> mParent = new ArrayTreeNode<>(ROOT_DATA);
+		TreeNode<String> mNode1 = new ArrayTreeNode<>(NODE_DATA_1, 3);
+		TreeNode<String> mNode2 = new ReplacingTreeNode(NODE_DATA_2);
+		mParent.add(mNode1);
+		mParent.add(mNode2);
+		mNode1.add(new ArrayTreeNode<>(NODE_DATA_3, 3));
+		mNode2.add(new ReplacingTreeNode(NODE_DATA_4));
+		mNode2.add(new ArrayTreeNode<>(null));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(mNode2);
+		}
+		TreeNode<?> mCopy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			mCopy = (TreeNode<?>) in.readObject();
+		}
+		String message = "The serialized tree node is not read back within its tree";
+		assertEquals(message, NODE_DATA_2, mCopy.data());
+		assertEquals(message, mParent, mCopy.root());
+		message = "The serialized tree node classes are not kept";
+		assertEquals(message, ReplacingTreeNode.class, mCopy.getClass());
+		assertEquals(message, ReplacingTreeNode.class, mCopy.firstChild().getClass());
+		assertEquals(message, ArrayTreeNode.class, mCopy.firstChild().nextSibling().getClass());
+		assertEquals(message, ArrayTreeNode.class, mCopy.root().firstChild().firstChild().getClass());
+	}
+
+	@Test
+	public void testOverriddenWriteReplace() throws IOException, ClassNotFoundException {
+		// Test the subclass may override the serialized form and still delegate to the compact one
+		ReplacingTreeNode mParent = new ReplacingTreeNode(ROOT_DATA);
+		mParent.add(new ReplacingTreeNode(NODE_DATA_1));
+		mParent.add(new ReplacingTreeNode(NODE_DATA_2));
+		ReplacingTreeNode.replacements = 0;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(mParent);
+		}
+		assertTrue(ReplacingTreeNode.replacements >= 3);
+		TreeNode<?> mCopy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			mCopy = (TreeNode<?>) in.readObject();
+		}
+		assertEquals(ReplacingTreeNode.class, mCopy.getClass());
+		assertEquals(3, mCopy.size());
+		assertEquals(NODE_DATA_2, mCopy.firstChild().nextSibling().data());
+	}
+
 }
@@ -76,7 +76,7 @@ public abstract class MultiTreeNodeTest extends TreeNodeTest {
 		((MultiTreeNode<String>) root).siblings();
 	}
 
-	//@Test TODO check why we are having multiple parents
+	@Test
 	public void testAddSubtrees() {
 		// Test the specified tree nodes are successfully added
 		String messageAddExpected = "The specified tree node was expected to be added but actually was not";